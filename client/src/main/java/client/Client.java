@@ -246,7 +246,7 @@ public class Client {
             sb.append(" | ");
             for (int j = 1; j <= 8; j++) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -300,7 +300,7 @@ public class Client {
             sb.append(" | ");
             for (int j = 8; j >= 1; j--) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -423,19 +423,17 @@ public class Client {
                     game.setBoard(board);
                 }
                 ChessBoard board = game.getBoard();
-                ChessPosition pos = new ChessPosition(row, col);
+                ChessPosition pos = ChessPosition.of(row, col);
                 ChessPiece piece = board.getPiece(pos);
                 StringBuilder moves = new StringBuilder();
                 if (piece == null){
                     moves.append("Null piece.");
                     return moves.toString();
                 }
-                HashSet<ChessMove> validMoves = piece.pieceMoves(board, pos);
+                HashSet<ChessMove> validMoves = game.validMoves(pos);
                 for (ChessMove move : validMoves){
                     ChessPosition end = move.getEndPosition();
-                    int endRow = end.getRow();
-                    int endCol = end.getColumn();
-                    board.squares[endRow-1][endCol-1] = new ChessPiece(ChessGame.TeamColor.WHITE, null);
+                    board.addPiece(end, new ChessPiece(ChessGame.TeamColor.WHITE, null));
                 }
                 if (this.playerColor.equals("white")){
                     moves.append(makeWhiteBoard(board));
@@ -444,7 +442,7 @@ public class Client {
                 }
                 for (int i=0; i<board.squares.length;i++){
                     for (int j=0; j<board.squares[i].length;j++){
-                        ChessPosition chessPosition = new ChessPosition(i+1,j+1);
+                        ChessPosition chessPosition = ChessPosition.of(i+1,j+1);
                         ChessPiece chessPiece = board.getPiece(chessPosition);
                         if (chessPiece != null){
                             if (chessPiece.teamColor == ChessGame.TeamColor.WHITE && chessPiece.pieceType == null){
@@ -519,16 +517,17 @@ public class Client {
                 int startCol = Integer.parseInt(startStr.split(",")[1]);
                 int endRow = Integer.parseInt(endStr.split(",")[0]);
                 int endCol = Integer.parseInt(endStr.split(",")[1]);
-                ChessPosition startPos = new ChessPosition(startRow, startCol);
-                ChessPosition endPos = new ChessPosition(endRow, endCol);
+                ChessPosition startPos = ChessPosition.of(startRow, startCol);
+                ChessPosition endPos = ChessPosition.of(endRow, endCol);
                 ChessMove move = new ChessMove(startPos, endPos, null);
                 ChessGame game = currGame.getGame();
                 ChessBoard board = game.getBoard();
                 ChessPiece piece = board.getPiece(startPos);
                 game.makeMove(move);
                 GameData newGame = new GameData(currGame.getGameID(), currGame.getWhiteUsername(), currGame.getBlackUsername(), currGame.getGameName(), game);
-                this.currGame = server.move(new AuthData(this.authToken, this.currUser), newGame);
-                this.webSocketFacade.makeMove(this.authToken, this.currUser, currGame.getGameID());
+                this.currGame = newGame;
+                // the server checks the move again and saves it
+                this.webSocketFacade.makeMove(this.authToken, this.currUser, currGame.getGameID(), move);
                 isInCheckmate();
                 isInCheck();
             } else {
@@ -549,7 +548,7 @@ public class Client {
     public void isInCheck() throws ResponseException{
         if (state != State.COMPLETED){
             ChessGame chessGame = currGame.getGame();
-            if (chessGame.isInCheck(chessGame.getTeamTurn())){
+            if (chessGame.status() == ChessGame.GameStatus.CHECK){
                 String loser = null;
                 if (playerColor.equals("white")){
                     loser = currGame.getBlackUsername();
@@ -562,7 +561,7 @@ public class Client {
     }
     public void isInCheckmate() throws ResponseException{
         ChessGame chessGame = currGame.getGame();
-        if (chessGame.isInCheckmate(chessGame.getTeamTurn())){
+        if (chessGame.status() == ChessGame.GameStatus.CHECKMATE){
             String loser = null;
             if (playerColor.equals("white")){
                 loser = currGame.getBlackUsername();
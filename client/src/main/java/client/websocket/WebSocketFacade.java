@@ -1,5 +1,6 @@
 package client.websocket;
 
+import chess.ChessMove;
 import com.google.gson.Gson;
 import exception.ResponseException;
 import webSocketMessages.userCommands.UserGameCommand;
@@ -60,9 +61,9 @@ public class WebSocketFacade extends Endpoint {
         }
     }
 
-    public void makeMove(String authToken, String username, int gameID) throws ResponseException {
+    public void makeMove(String authToken, String username, int gameID, ChessMove move) throws ResponseException {
         try {
-            var action = new UserGameCommand( UserGameCommand.CommandType.MAKE_MOVE, authToken, username, gameID);
+            var action = new UserGameCommand( UserGameCommand.CommandType.MAKE_MOVE, authToken, username, gameID, move);
             this.session.getBasicRemote().sendText(new Gson().toJson(action));
         } catch (IOException ex) {
             throw new ResponseException(500, ex.getMessage());
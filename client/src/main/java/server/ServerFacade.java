@@ -112,12 +112,6 @@ public class ServerFacade {
         return this.makeRequest("POST", path, game, authToken, null, GameData.class);
     }
 
-    public GameData move(AuthData auth, GameData game) throws ResponseException {
-        var path = "/move";
-        String authToken = auth.getAuthToken();
-        return this.makeRequest("POST", path, game, authToken, null, GameData.class);
-    }
-
     private <T> T makeRequest(String method, String path, Object request, String auth, String playerColor, Class<T> responseClass) throws ResponseException {
         try {
             URL url = (new URI(serverUrl + path)).toURL();
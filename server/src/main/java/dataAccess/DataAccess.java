@@ -1,5 +1,6 @@
 package dataAccess;
 
+import chess.ChessMove;
 import dataAccess.DataAccessException;
 import model.AuthData;
 import model.GameData;
@@ -32,7 +33,10 @@ public interface DataAccess {
 
     public GameData leaveGame(GameData game) throws DataAccessException;
 
-    public GameData move(GameData game) throws DataAccessException;
+    /**
+     * Saves move, which has just been played on game's ChessGame, by adding it to the stored game
+     */
+    public GameData move(GameData game, ChessMove move) throws DataAccessException;
 
     public void deleteAll() throws DataAccessException;
 }
\ No newline at end of file
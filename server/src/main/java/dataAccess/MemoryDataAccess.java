@@ -1,5 +1,6 @@
 package dataAccess;
 
+import chess.ChessMove;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
@@ -87,7 +88,7 @@ public class MemoryDataAccess implements DataAccess{
     }
 
     @Override
-    public GameData move(GameData game) throws DataAccessException{
+    public GameData move(GameData game, ChessMove move) throws DataAccessException{
         return game;
     }
 
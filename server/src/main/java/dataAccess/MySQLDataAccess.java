@@ -1,13 +1,17 @@
 package dataAccess;
 
+import chess.BoardCodec;
 import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameRecord;
 import com.google.gson.Gson;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,6 +21,9 @@ import static java.sql.Types.NULL;
 
 public class MySQLDataAccess implements DataAccess{
 
+    // first byte of every GameRecord, for matching stored records in SQL
+    private static final byte[] RECORD_MARKER = {(byte) GameRecord.MARKER};
+
     public MySQLDataAccess() throws DataAccessException {
         configureDatabase();
     }
@@ -191,9 +198,7 @@ public class MySQLDataAccess implements DataAccess{
                     String whiteUser = resultSet.getString("whiteUsername");
                     String blackUser = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    String chessGameString = resultSet.getString("game");
-                    Gson gson = new Gson();
-                    ChessGame chessGame = gson.fromJson(chessGameString, ChessGame.class);
+                    ChessGame chessGame = readGame(resultSet);
                     GameData gameToReturn = new GameData(gameIDToReturn, whiteUser, blackUser, gameName, chessGame);
                     games.add(gameToReturn);
                 }
@@ -228,11 +233,11 @@ public class MySQLDataAccess implements DataAccess{
             throw new DataAccessException(e.getMessage());
         }
         var statement = "INSERT INTO game (gameID, whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?, ?)";
-        Gson gson = new Gson();
         ChessGame chessGame = new ChessGame();
         ChessBoard board = new ChessBoard();
+        board.resetBoard();
         chessGame.setBoard(board);
-        var id = executeUpdate(statement, game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), gson.toJson(chessGame));
+        var id = executeUpdate(statement, game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), GameRecord.encode(chessGame));
         return new GameData(game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), chessGame);
     }
 
@@ -255,9 +260,7 @@ public class MySQLDataAccess implements DataAccess{
                     String whiteUser = resultSet.getString("whiteUsername");
                     String blackUser = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    String chessGameString = resultSet.getString("game");
-                    Gson gson = new Gson();
-                    ChessGame chessGame = gson.fromJson(chessGameString, ChessGame.class);
+                    ChessGame chessGame = readGame(resultSet);
                     GameData gameToReturn = new GameData(gameIDToReturn, whiteUser, blackUser, gameName, chessGame);
                     return gameToReturn;
                 } else {
@@ -295,8 +298,7 @@ public class MySQLDataAccess implements DataAccess{
                         updatePreparedStatement.executeUpdate();
                     }
                     // Return the updated game data
-                    Gson gson = new Gson();
-                    return new GameData(gameIDToReturn, game.getWhiteUsername(), game.getBlackUsername(), resultSet.getString("gameName"), gson.fromJson(resultSet.getString("game"), ChessGame.class));
+                    return new GameData(gameIDToReturn, game.getWhiteUsername(), game.getBlackUsername(), resultSet.getString("gameName"), readGame(resultSet));
                 } else {
                     // GameID doesn't exist
                     GameData error = new GameData(400, "", "", "", new ChessGame());
@@ -310,34 +312,37 @@ public class MySQLDataAccess implements DataAccess{
 
     @Override
     public GameData leaveGame(GameData game) throws DataAccessException {
-        // Then if the username doesn't exist we'll add the data to the db
-        int gameID = game.getGameID();
-        String whiteUser = game.getWhiteUsername();
-        String blackUser = game.getBlackUsername();
-        String gameName = game.getGameName();
-        ChessGame chessGame = game.getGame();
-        var statement1 = "DELETE FROM game WHERE gameID = ?";
-        var id = executeUpdate(statement1, gameID);
-        Gson gson = new Gson();
-        var statement2 = "INSERT INTO game (gameID, whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?, ?)";
-        var id2 = executeUpdate(statement2, game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), gson.toJson(chessGame));
-        return new GameData(game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), chessGame);
+        // only the seats change; the stored game is left as it is
+        var statement = "UPDATE game SET whiteUsername = ?, blackUsername = ? WHERE gameID = ?";
+        var id = executeUpdate(statement, game.getWhiteUsername(), game.getBlackUsername(), game.getGameID());
+        return new GameData(game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), game.getGame());
     }
 
+    /**
+     * Appends the move's two bytes to the stored GameRecord; the rest of the row is not written. A
+     * row still holding a bare board or JSON is rewritten as a record, once.
+     *
+     * @throws DataAccessException if move is not the game's last move, or the stored game has
+     * moved on since game was read
+     */
     @Override
-    public GameData move(GameData game) throws DataAccessException {
-        // Then if the username doesn't exist we'll add the data to the db
+    public GameData move(GameData game, ChessMove move) throws DataAccessException {
         int gameID = game.getGameID();
-        String whiteUser = game.getWhiteUsername();
-        String blackUser = game.getBlackUsername();
-        String gameName = game.getGameName();
         ChessGame chessGame = game.getGame();
-        var statement1 = "DELETE FROM game WHERE gameID = ?";
-        var id = executeUpdate(statement1, gameID);
-        Gson gson = new Gson();
-        var statement2 = "INSERT INTO game (gameID, whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?, ?)";
-        var id2 = executeUpdate(statement2, game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), gson.toJson(chessGame));
-        return new GameData(game.getGameID(), game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), chessGame);
+        int ply = chessGame.getPlyCount() - 1;
+        if (ply < 0 || !chessGame.moveAt(ply).equals(move)) {
+            throw new DataAccessException(String.format("%s is not the last move of game %d", move, gameID));
+        }
+        var append = "UPDATE game SET game = CONCAT(game, ?) WHERE gameID = ? AND LEFT(game, 1) = ? AND LENGTH(game) = ?";
+        int updated = executeUpdateCount(append, GameRecord.encodeMove(chessGame, ply), gameID, RECORD_MARKER, GameRecord.size(ply));
+        if (updated == 0) {
+            var rewrite = "UPDATE game SET game = ? WHERE gameID = ? AND LEFT(game, 1) <> ?";
+            updated = executeUpdateCount(rewrite, GameRecord.encode(chessGame), gameID, RECORD_MARKER);
+        }
+        if (updated == 0) {
+            throw new DataAccessException(String.format("game %d changed before %s was saved", gameID, move));
+        }
+        return new GameData(gameID, game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), chessGame);
     }
 
 
@@ -354,12 +359,7 @@ public class MySQLDataAccess implements DataAccess{
     private int executeUpdate(String statement, Object... params) throws DataAccessException {
         try (var conn = DatabaseManager.getConnection()) {
             try (var ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
-                for (var i = 0; i < params.length; i++) {
-                    var param = params[i];
-                    if (param instanceof String s) ps.setString(i + 1, s);
-                    else if (param instanceof Integer num ) ps.setInt(i+1, num);
-                    else if (param == null) ps.setNull(i + 1, NULL);
-                }
+                setParameters(ps, params);
                 ps.executeUpdate();
 
                 var rs = ps.getGeneratedKeys();
@@ -374,6 +374,48 @@ public class MySQLDataAccess implements DataAccess{
         }
     }
 
+    // Like executeUpdate, but returns how many rows the statement changed
+    private int executeUpdateCount(String statement, Object... params) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            try (var ps = conn.prepareStatement(statement)) {
+                setParameters(ps, params);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
+        }
+    }
+
+    private static void setParameters(PreparedStatement ps, Object... params) throws SQLException {
+        for (var i = 0; i < params.length; i++) {
+            var param = params[i];
+            if (param instanceof String s) ps.setString(i + 1, s);
+            else if (param instanceof Integer num ) ps.setInt(i+1, num);
+            else if (param instanceof byte[] bytes) ps.setBytes(i + 1, bytes);
+            else if (param == null) ps.setNull(i + 1, NULL);
+        }
+    }
+
+    /**
+     * Reads the game column of the current row. Games are stored as GameRecord bytes, with their
+     * moves; older rows hold a bare BoardCodec position or, before that, Gson JSON text, and those
+     * still load without a move history. The column stays wide enough for JSON. A NULL column
+     * reads as null, as it did with Gson.
+     */
+    public static ChessGame readGame(ResultSet resultSet) throws SQLException {
+        byte[] stored = resultSet.getBytes("game");
+        if (stored == null) {
+            return null;
+        }
+        if (GameRecord.isRecord(stored)) {
+            return GameRecord.decode(stored);
+        }
+        if (stored.length == BoardCodec.SIZE) {
+            return BoardCodec.decode(stored);
+        }
+        return new Gson().fromJson(new String(stored, StandardCharsets.UTF_8), ChessGame.class);
+    }
+
     private final String[] createStatements = {
             """
             CREATE TABLE IF NOT EXISTS  user (
@@ -388,7 +430,7 @@ public class MySQLDataAccess implements DataAccess{
                 whiteUsername Varchar(255),
                 blackUsername Varchar(255),
                 gameName Varchar(255),
-                game Varchar(10000)
+                game Varbinary(10000)
               )
             """,
             """
@@ -398,6 +440,20 @@ public class MySQLDataAccess implements DataAccess{
               )
             """
     };
+    // Tables created before games were stored as bytes hold them in a text column; convert those once
+    private void migrateGameColumn(Connection conn) throws SQLException {
+        String query = "SELECT DATA_TYPE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = 'game'";
+        try (var preparedStatement = conn.prepareStatement(query);
+             var resultSet = preparedStatement.executeQuery()) {
+            if (!resultSet.next() || resultSet.getString("DATA_TYPE").equalsIgnoreCase("varbinary")) {
+                return;
+            }
+        }
+        try (var preparedStatement = conn.prepareStatement("ALTER TABLE game MODIFY game Varbinary(10000)")) {
+            preparedStatement.executeUpdate();
+        }
+    }
+
     private void configureDatabase() throws DataAccessException {
         DatabaseManager.createDatabase();
         try (var conn = DatabaseManager.getConnection()) {
@@ -406,6 +462,7 @@ public class MySQLDataAccess implements DataAccess{
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateGameColumn(conn);
         } catch (SQLException ex) {
             throw new DataAccessException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
@@ -0,0 +1,47 @@
+package server;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import dataAccess.DataAccessException;
+import dataAccess.MySQLDataAccess;
+import engine.OpeningBookBuilder;
+import model.GameData;
+import server.websocket.WebSocketHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Builds the opening book the computer player reads from the games in the database.
+ * <p>
+ * Arguments: the book file to write (default {@value WebSocketHandler#DEFAULT_BOOK}), how many
+ * plies from the initial position to look for stored games without a move history (default
+ * {@value OpeningBookBuilder#DEFAULT_DEPTH}), and how many of each recorded game's moves to credit
+ * (default {@value OpeningBookBuilder#DEFAULT_PLIES}).
+ */
+public class OpeningBookTool {
+
+    public static void main(String[] args) throws DataAccessException, IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : WebSocketHandler.DEFAULT_BOOK);
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : OpeningBookBuilder.DEFAULT_DEPTH;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : OpeningBookBuilder.DEFAULT_PLIES;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        int games = 0;
+        for (Object game : new MySQLDataAccess().listGames()) {
+            ChessGame chessGame = ((GameData) game).getGame();
+            if (chessGame != null && chessGame.getBoard() != null) {
+                builder.addGame(chessGame, plies);
+                games++;
+            }
+        }
+
+        ChessGame start = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        start.setBoard(board);
+        builder.walk(start, depth);
+        builder.write(path);
+        System.out.printf("Wrote %d book entries from %d games to %s%n", builder.size(), games, path);
+    }
+}
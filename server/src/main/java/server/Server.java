@@ -57,7 +57,6 @@ public class Server {
         Spark.put("/game", this::joinGame);
         Spark.post("/leave", this::leave);
         Spark.post("/getgame", this::getGame);
-        Spark.post("/move", this::move);
 
         Spark.awaitInitialization();
         return Spark.port();
@@ -225,22 +224,6 @@ public class Server {
         return result;
     }
 
-    private Object move(Request req, Response res) throws DataAccessException{
-        String authToken = req.headers("authorization");
-        var game = new Gson().fromJson(req.body(), GameData.class);
-        AuthData auth = new AuthData(authToken, "");
-        AuthData authCheck = service.getAuth(auth);
-        if (authCheck.getAuthToken().equals("401")){
-            res.status(401);
-            res.type("application/json");
-            ErrorData error = new ErrorData("Error: Unauthorized");
-            return new Gson().toJson(error);
-        }
-        GameData newGame = service.move(game);
-        Object result = new Gson().toJson(newGame);
-        return result;
-    }
-
     private Object getGame(Request req, Response res) throws DataAccessException{
         String authToken = req.headers("authorization");
         var game = new Gson().fromJson(req.body(), GameData.class);
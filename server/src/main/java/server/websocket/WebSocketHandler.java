@@ -2,13 +2,20 @@ package server.websocket;
 
 import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Move;
+import chess.MoveList;
 import com.google.gson.Gson;
 import dataAccess.DataAccess;
 import dataAccess.DataAccessException;
 import dataAccess.DatabaseManager;
 import dataAccess.MySQLDataAccess;
+import engine.OpeningBook;
+import engine.Search;
+import engine.SearchLimits;
 import exception.ResponseException;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
@@ -19,21 +26,48 @@ import webSocketMessages.userCommands.UserGameCommand;
 import webSocketMessages.serverMessages.ServerMessage;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Random;
+import java.util.Set;
 import java.util.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 @WebSocket
 public class WebSocketHandler {
 
+    // a game seat taken by this username is played by the server's search engine
+    public static final String COMPUTER_NAME = "computer";
+    private static final SearchLimits COMPUTER_LIMITS = new SearchLimits(SearchLimits.MAX_DEPTH, 500, 2_000_000);
+    // the computer's opening book, written by server.OpeningBookTool; the "chess.book" system property overrides the path
+    public static final String DEFAULT_BOOK = "openingBook.bin";
+    private static final OpeningBook BOOK = openBook(Path.of(System.getProperty("chess.book", DEFAULT_BOOK)));
+    private static final Random RANDOM = new Random();
+    // for checking book moves, one per computer player thread
+    private static final ThreadLocal<MoveList> BOOK_SCRATCH = ThreadLocal.withInitial(MoveList::new);
+    // searches run here, off the websocket threads; daemon threads so they never keep the server up
+    private static final ExecutorService COMPUTER_PLAYER = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "computer-player");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private final ConnectionManager connections = new ConnectionManager();
+    private final DataAccess dataAccess;
+    // games the computer is working on a move for
+    private final Set<Integer> computerGames = ConcurrentHashMap.newKeySet();
 
     {
         try {
-            DataAccess dataAccess = new MySQLDataAccess();
+            dataAccess = new MySQLDataAccess();
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
@@ -46,7 +80,7 @@ public class WebSocketHandler {
         switch (action.getCommandType()) {
             case JOIN_PLAYER -> joinPlayer(action.getUsername(), session, action.getGameID());
             case JOIN_OBSERVER -> joinObserver(action.getUsername(), session, action.getGameID());
-            case MAKE_MOVE -> makeMove(action.getUsername(), session, action.getGameID());
+            case MAKE_MOVE -> makeMove(action.getUsername(), session, action.getGameID(), action.getMove());
             case LEAVE -> leave(action.getUsername(), session, action.getGameID());
             case RESIGN -> resign(action.getUsername(), session, action.getGameID());
             case CHECK -> check(action.getUsername(), session, action.getGameID());
@@ -73,9 +107,7 @@ public class WebSocketHandler {
                     String whiteUser = resultSet.getString("whiteUsername");
                     String blackUser = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    String chessGameString = resultSet.getString("game");
-                    Gson gson = new Gson();
-                    ChessGame chessGame = gson.fromJson(chessGameString, ChessGame.class);
+                    ChessGame chessGame = MySQLDataAccess.readGame(resultSet);
                     gameToReturn = new GameData(gameIDToReturn, whiteUser, blackUser, gameName, chessGame);
                     if (visitorName.equals(whiteUser)){
                         playerColor = "white";
@@ -103,6 +135,7 @@ public class WebSocketHandler {
         var message = String.format("%s just joined the game as a player.", visitorName);
         var serverMessage = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, message);
         connections.broadcast(visitorName, serverMessage);
+        scheduleComputerMove(gameID);
     }
 
     private void joinObserver(String visitorName, Session session, int gameID) throws IOException, DataAccessException {
@@ -123,9 +156,7 @@ public class WebSocketHandler {
                     String whiteUser = resultSet.getString("whiteUsername");
                     String blackUser = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    String chessGameString = resultSet.getString("game");
-                    Gson gson = new Gson();
-                    ChessGame chessGame = gson.fromJson(chessGameString, ChessGame.class);
+                    ChessGame chessGame = MySQLDataAccess.readGame(resultSet);
                     gameToReturn = new GameData(gameIDToReturn, whiteUser, blackUser, gameName, chessGame);
                 } else {
                     // Game doesn't exist
@@ -145,7 +176,7 @@ public class WebSocketHandler {
         connections.broadcast(visitorName, serverMessage);
     }
 
-    private void makeMove(String visitorName, Session session, int gameID) throws IOException, DataAccessException {
+    private void makeMove(String visitorName, Session session, int gameID, ChessMove move) throws IOException, DataAccessException {
         connections.add(visitorName, session);
         GameData gameToReturn = null;
         String playerColor = null;
@@ -164,9 +195,7 @@ public class WebSocketHandler {
                     String whiteUser = resultSet.getString("whiteUsername");
                     String blackUser = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    String chessGameString = resultSet.getString("game");
-                    Gson gson = new Gson();
-                    ChessGame chessGame = gson.fromJson(chessGameString, ChessGame.class);
+                    ChessGame chessGame = MySQLDataAccess.readGame(resultSet);
                     gameToReturn = new GameData(gameIDToReturn, whiteUser, blackUser, gameName, chessGame);
                     if (visitorName.equals(whiteUser)){
                         playerColor = "white";
@@ -182,6 +211,21 @@ public class WebSocketHandler {
             throw new DataAccessException(e.getMessage());
         }
         ChessGame game = gameToReturn.getGame();
+        String toMove = game.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? gameToReturn.getWhiteUsername() : gameToReturn.getBlackUsername();
+        if (move == null || !visitorName.equals(toMove)) {
+            var errorMessage = new ServerMessage(ServerMessage.ServerMessageType.ERROR, "Error: it is not your turn to move.");
+            connections.broadcastToSender(visitorName, errorMessage);
+            return;
+        }
+        try {
+            game.makeMove(move);
+        } catch (InvalidMoveException e) {
+            var errorMessage = new ServerMessage(ServerMessage.ServerMessageType.ERROR, "Error: " + e.getMessage());
+            connections.broadcastToSender(visitorName, errorMessage);
+            return;
+        }
+        dataAccess.move(gameToReturn, move);
         ChessBoard board = game.getBoard();
         String gameMessage = null;
         if (playerColor == "white"){
@@ -195,6 +239,99 @@ public class WebSocketHandler {
         var message = String.format("%s just made a move.", visitorName);
         var serverMessage = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, message);
         connections.broadcast(visitorName, serverMessage);
+        scheduleComputerMove(gameID);
+    }
+
+    /**
+     * Has the computer move in the background if it holds the seat to move, so the search never
+     * holds up this connection's messages. Called after a join as well as after a move, so a
+     * computer playing white opens the game.
+     */
+    private void scheduleComputerMove(int gameID) {
+        if (!computerGames.add(gameID)) {
+            return; // already thinking about this game
+        }
+        COMPUTER_PLAYER.execute(() -> {
+            try {
+                computerMove(gameID);
+            } catch (IOException | DataAccessException | RuntimeException e) {
+                System.out.println("Computer move failed in game " + gameID + ":");
+                e.printStackTrace();
+                reportComputerFailure(gameID, e);
+            } finally {
+                computerGames.remove(gameID);
+            }
+        });
+    }
+
+    // without this the human would wait forever for a move that is not coming
+    private void reportComputerFailure(int gameID, Exception failure) {
+        var message = String.format("Error: the computer could not make its move in game %d (%s).", gameID, failure);
+        try {
+            connections.broadcast(COMPUTER_NAME, new ServerMessage(ServerMessage.ServerMessageType.ERROR, message));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Plays the computer's move in the game's stored position if it is the computer's turn, saves
+     * it, and shows everyone the new board
+     */
+    private void computerMove(int gameID) throws IOException, DataAccessException {
+        GameData gameData = dataAccess.getGame(new GameData(gameID, null, null, null, null));
+        ChessGame game = gameData.getGame();
+        if (game == null || game.getBoard() == null || gameData.getGameID() != gameID) {
+            return;
+        }
+        String toMove = game.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? gameData.getWhiteUsername() : gameData.getBlackUsername();
+        if (!COMPUTER_NAME.equals(toMove)) {
+            return;
+        }
+        ChessGame.TeamColor computerColor = game.getTeamTurn();
+        int bookMove = BOOK == null ? Move.NONE : BOOK.move(game, RANDOM.nextLong(), BOOK_SCRATCH.get());
+        ChessMove move = bookMove != Move.NONE
+                ? Move.toChessMove(bookMove) : new Search().search(game, COMPUTER_LIMITS).getBestMove();
+        if (move == null) {
+            return;
+        }
+        try {
+            game.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException(e.getMessage());
+        }
+        dataAccess.move(gameData, move);
+
+        String gameMessage = computerColor == ChessGame.TeamColor.WHITE
+                ? makeBlackBoard(game.getBoard()) : makeWhiteBoard(game.getBoard());
+        connections.broadcast(COMPUTER_NAME, new ServerMessage(ServerMessage.ServerMessageType.LOAD_GAME, gameMessage));
+        var message = String.format("%s just made a move.", COMPUTER_NAME);
+        connections.broadcast(COMPUTER_NAME, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, message));
+        String opponent = computerColor == ChessGame.TeamColor.WHITE
+                ? gameData.getBlackUsername() : gameData.getWhiteUsername();
+        switch (game.status()) {
+            case CHECK -> message = String.format("%s is in check.", opponent);
+            case CHECKMATE -> message = String.format("%s is in checkmate. The game is over.", opponent);
+            default -> message = null;
+        }
+        if (message != null) {
+            connections.broadcast(COMPUTER_NAME, new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, message));
+        }
+    }
+
+    // no book just means the computer searches from the first move
+    private static OpeningBook openBook(Path path) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(path);
+        } catch (IOException e) {
+            System.out.println("Could not open the opening book " + path + ":");
+            e.printStackTrace();
+            return null;
+        }
     }
 
     private void leave(String visitorName, Session session, int gameID) throws IOException{
@@ -232,7 +369,7 @@ public class WebSocketHandler {
             sb.append(" | ");
             for (int j = 1; j <= 8; j++) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -286,7 +423,7 @@ public class WebSocketHandler {
             sb.append(" | ");
             for (int j = 8; j >= 1; j--) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -0,0 +1,117 @@
+package chess;
+
+/**
+ * Static helpers for working with 64-bit square sets.
+ * <p>
+ * Bit (row - 1) * 8 + (column - 1) stands for the square at that row and column,
+ * so bit 0 is the bottom left corner (1,1) and bit 63 is the top right corner (8,8).
+ */
+public final class Bitboard {
+
+    public static final long FILE_1 = 0x0101010101010101L;
+    public static final long FILE_8 = FILE_1 << 7;
+    public static final long ROW_1 = 0xFFL;
+    public static final long ROW_2 = ROW_1 << 8;
+    public static final long ROW_7 = ROW_1 << 48;
+    public static final long ROW_8 = ROW_1 << 56;
+
+    private static final long NOT_FILE_1 = ~FILE_1;
+    private static final long NOT_FILE_8 = ~FILE_8;
+    private static final long NOT_FILES_1_2 = ~(FILE_1 | FILE_1 << 1);
+    private static final long NOT_FILES_7_8 = ~(FILE_8 | FILE_8 >>> 1);
+
+    private Bitboard() {
+    }
+
+    /**
+     * @return the square index of the given row and column (both 1 through 8)
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the row (1 through 8) of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the column (1 through 8) of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long north(long b) {
+        return b << 8;
+    }
+
+    public static long south(long b) {
+        return b >>> 8;
+    }
+
+    public static long east(long b) {
+        return (b << 1) & NOT_FILE_1;
+    }
+
+    public static long west(long b) {
+        return (b >>> 1) & NOT_FILE_8;
+    }
+
+    public static long knightAttacks(long knights) {
+        long l1 = (knights >>> 1) & NOT_FILE_8;
+        long l2 = (knights >>> 2) & NOT_FILES_7_8;
+        long r1 = (knights << 1) & NOT_FILE_1;
+        long r2 = (knights << 2) & NOT_FILES_1_2;
+        long h1 = l1 | r1;
+        long h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+
+    public static long kingAttacks(long kings) {
+        long sideways = east(kings) | west(kings);
+        long row = kings | sideways;
+        return sideways | north(row) | south(row);
+    }
+
+    public static long pawnAttacks(long pawns, ChessGame.TeamColor color) {
+        long forward = color == ChessGame.TeamColor.WHITE ? north(pawns) : south(pawns);
+        return east(forward) | west(forward);
+    }
+
+    /**
+     * Floods outward from every slider along the rook lines, stopping on (and including) the first
+     * occupied square in each direction
+     */
+    public static long rookAttacks(long rooks, long occupied) {
+        long empty = ~occupied;
+        return fill(rooks, empty, 8, -1L) | fill(rooks, empty, -8, -1L)
+                | fill(rooks, empty, 1, NOT_FILE_1) | fill(rooks, empty, -1, NOT_FILE_8);
+    }
+
+    /**
+     * Floods outward from every slider along the bishop lines, stopping on (and including) the first
+     * occupied square in each direction
+     */
+    public static long bishopAttacks(long bishops, long occupied) {
+        long empty = ~occupied;
+        return fill(bishops, empty, 9, NOT_FILE_1) | fill(bishops, empty, 7, NOT_FILE_8)
+                | fill(bishops, empty, -7, NOT_FILE_1) | fill(bishops, empty, -9, NOT_FILE_8);
+    }
+
+    private static long fill(long gen, long empty, int shift, long mask) {
+        long flood = 0L;
+        while (gen != 0) {
+            gen = (shift > 0 ? gen << shift : gen >>> -shift) & mask;
+            flood |= gen;
+            gen &= empty;
+        }
+        return flood;
+    }
+}
@@ -0,0 +1,99 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary form of a game's position, for storage and the wire. It is
+ * {@value #SIZE} bytes long:
+ * <ul>
+ *     <li>32 bytes of squares, two per byte, a1 first (see {@link Bitboard} for square
+ *     numbering). Each square is 4 bits: 0 when empty, otherwise
+ *     {@code color.ordinal() * 6 + type.ordinal() + 1}. The even square of a pair is the low nibble.</li>
+ *     <li>1 flags byte: bit 0 is set when black is to move. Bits 1-7 hold the halfmove clock
+ *     (see {@link ChessGame#getHalfmoveClock()}), capped at {@value #MAX_CLOCK}.</li>
+ * </ul>
+ * Only the position is kept, not the move history, so a decoded game cannot tell that a position
+ * repeats one from before it was stored (see {@link ChessGame#repetitionCount()}); a
+ * {@link GameRecord} keeps the moves too.
+ * <p>
+ * Reading and writing work directly on a ByteBuffer at its current position.
+ */
+public final class BoardCodec {
+
+    public static final int SIZE = 33;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int MAX_CLOCK = 127;
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Writes game's position at out's position, advancing it by {@value #SIZE} bytes
+     */
+    public static void write(ChessGame game, ByteBuffer out) {
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            out.put((byte) (nibble(board.getPiece(square)) | nibble(board.getPiece(square + 1)) << 4));
+        }
+        int clock = Math.min(game.getHalfmoveClock(), MAX_CLOCK);
+        out.put((byte) ((game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0) | clock << 1));
+    }
+
+    /**
+     * Reads a position written by {@link #write}, advancing in by {@value #SIZE} bytes
+     *
+     * @return a new game in that position, with no move history
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public static ChessGame read(ByteBuffer in) {
+        ChessBoard board = new ChessBoard();
+        try {
+            for (int square = 0; square < 64; square += 2) {
+                int pair = in.get();
+                place(board, square, pair & 0xF);
+                place(board, square + 1, (pair >> 4) & 0xF);
+            }
+            int flags = in.get();
+            ChessGame game = new ChessGame();
+            game.setTeamTurn((flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+            game.setBoard(board);
+            game.setHalfmoveClock((flags >> 1) & MAX_CLOCK);
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("An encoded board is " + SIZE + " bytes", e);
+        }
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[SIZE];
+        write(game, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    public static ChessGame decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    // highlight markers (no piece type) are not part of the position
+    private static int nibble(ChessPiece piece) {
+        if (piece == null || piece.getPieceType() == null) {
+            return 0;
+        }
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal() + 1;
+    }
+
+    private static void place(ChessBoard board, int square, int nibble) {
+        if (nibble == 0) {
+            return;
+        }
+        if (nibble > 12) {
+            throw new IllegalArgumentException("Bad square code " + nibble + " for square " + square);
+        }
+        board.addPiece(square, ChessPiece.of(COLORS[(nibble - 1) / 6], TYPES[(nibble - 1) % 6]));
+    }
+}
@@ -12,11 +12,39 @@ import java.util.Map;
  */
 public class ChessBoard {
 
+    /**
+     * Returned by {@link #getKingSquare} when a team has no king on the board
+     */
+    public static final int NO_SQUARE = -1;
+
     public ChessPiece[][] squares = new ChessPiece[8][8];
 //    public HashMap<ChessPosition, ChessPiece> pieces = new HashMap<>();
 
+    // Bitboard mirror of squares, one mask per color and piece type (see Bitboard for the bit layout).
+    // These are transient so Gson only stores squares; indexedSquares notices when Gson (or anyone
+    // else) swaps in a new squares array and triggers a rebuild. Always change squares through
+    // addPiece/removePiece so the two stay in sync.
+    private transient long[] pieceBitboards = new long[12];
+    private transient long[] colorBitboards = new long[2];
+    private transient long occupied;
+    private transient int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+    private transient long zobristKey;
+    // Running evaluation terms per team, in centipawns (see Evaluation)
+    private transient int[] material = new int[2];
+    private transient int[] squareBonus = new int[2];
+    private transient ChessPiece[][] indexedSquares;
+
     public ChessBoard() {
-        this.resetBoard();
+    }
+
+    /**
+     * Copies other's piece placement. Pieces themselves are shared, since nothing mutates them
+     * once they are on a board; the copy can be changed without affecting other.
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row = 0; row < 8; row++) {
+            squares[row] = other.squares[row].clone();
+        }
     }
 
     /**
@@ -26,10 +54,21 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(Bitboard.square(position.getRow(), position.getColumn()), piece);
 //        pieces.put(position, piece);
     }
 
+    /**
+     * Same as {@link #addPiece(ChessPosition, ChessPiece)} for a square index
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        ensureIndexed();
+        ChessPiece[] row = squares[square >>> 3];
+        unindex(row[square & 7], square);
+        row[square & 7] = piece;
+        index(piece, square);
+    }
+
     /**
      * Gets a chess piece on the chessboard
      *
@@ -44,11 +83,252 @@ public class ChessBoard {
         return squares[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * Same as {@link #getPiece(ChessPosition)} for a square index
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
     public void removePiece(ChessPosition position) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = null;
+        removePiece(Bitboard.square(position.getRow(), position.getColumn()));
 //        pieces.remove(position);
     }
 
+    /**
+     * Same as {@link #removePiece(ChessPosition)} for a square index
+     */
+    public void removePiece(int square) {
+        ensureIndexed();
+        ChessPiece[] row = squares[square >>> 3];
+        unindex(row[square & 7], square);
+        row[square & 7] = null;
+    }
+
+    /**
+     * @return the squares holding pieces of the given team and type
+     */
+    public long getPieceBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        ensureIndexed();
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    /**
+     * @return the squares holding any piece of the given team
+     */
+    public long getTeamBitboard(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return the squares holding any piece at all
+     */
+    public long getOccupied() {
+        ensureIndexed();
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the piece placement (see {@link Zobrist}); boards holding the
+     * same pieces on the same squares have the same key. Side to move is not part of a board,
+     * see {@link ChessGame#getZobristKey()} for the full position key.
+     */
+    public long getZobristKey() {
+        ensureIndexed();
+        return zobristKey;
+    }
+
+    /**
+     * @return the total material value of the given team's pieces, in centipawns
+     */
+    public int getMaterial(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return material[color.ordinal()];
+    }
+
+    /**
+     * @return the sum of the piece-square bonuses of the given team's pieces, in centipawns
+     */
+    public int getSquareBonus(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return squareBonus[color.ordinal()];
+    }
+
+    /**
+     * Static evaluation of the board from white's side, in centipawns: material plus
+     * piece-square bonuses for white, minus the same for black. Kept up to date as pieces are
+     * added and removed, so reading it costs nothing.
+     */
+    public int evaluate() {
+        int white = ChessGame.TeamColor.WHITE.ordinal();
+        int black = ChessGame.TeamColor.BLACK.ordinal();
+        ensureIndexed();
+        return material[white] + squareBonus[white] - material[black] - squareBonus[black];
+    }
+
+    /**
+     * @return {@link #evaluate()} from the given team's side (positive when that team is ahead)
+     */
+    public int evaluate(ChessGame.TeamColor perspective) {
+        return perspective == ChessGame.TeamColor.WHITE ? evaluate() : -evaluate();
+    }
+
+    /**
+     * @return the square index (see {@link Bitboard}) of the given team's king, or
+     * {@link #NO_SQUARE} if it has none. If a team somehow has several kings, this
+     * is the one closest to row 1, column 1.
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return the position of the given team's king, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = getKingSquare(color);
+        if (square == NO_SQUARE) {
+            return null;
+        }
+        return ChessPosition.of(square);
+    }
+
+    /**
+     * Checks whether any piece of the given team attacks a square, working backwards from
+     * the square: a piece attacks it exactly when a piece of the same kind standing on the
+     * square would attack the piece back (with pawns looking the other way). Each check is
+     * one {@link Attacks} lookup, and it returns at the first attacker found.
+     *
+     * @param position the square to test; it may be empty or hold a piece of either team
+     * @param byColor  the attacking team
+     * @return true if a piece of byColor could capture on that square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(Bitboard.square(position.getRow(), position.getColumn()), byColor);
+    }
+
+    /**
+     * Same as {@link #isSquareAttacked(ChessPosition, ChessGame.TeamColor)} for a square index
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        ensureIndexed();
+        return isSquareAttacked(square, byColor, occupied);
+    }
+
+    /**
+     * Same as {@link #isSquareAttacked(int, ChessGame.TeamColor)}, but with sliders seeing the given
+     * occupancy instead of the real one. Move generation uses this to ask whether a king would still be
+     * attacked after stepping off a square, by leaving the king out of the occupancy.
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor, long occupied) {
+        ensureIndexed();
+        int base = byColor.ordinal() * 6;
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((Attacks.pawn(defender, square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+                || (Attacks.knight(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+                || (Attacks.king(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Attacks.rook(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens)) != 0
+                || (Attacks.bishop(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * @return the squares of every piece of the given team that attacks a square
+     */
+    public long getAttackers(int square, ChessGame.TeamColor byColor) {
+        ensureIndexed();
+        int base = byColor.ordinal() * 6;
+        ChessGame.TeamColor defender = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Attacks.pawn(defender, square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Attacks.knight(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Attacks.king(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Attacks.rook(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (Attacks.bishop(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+    }
+
+    /**
+     * @return every square the given team's pieces attack, whether or not a piece stands there
+     */
+    public long getAttackedSquares(ChessGame.TeamColor color) {
+        ensureIndexed();
+        int base = color.ordinal() * 6;
+        long rooks = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()];
+        long bishops = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()];
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return Bitboard.pawnAttacks(pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()], color)
+                | Bitboard.knightAttacks(pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | Bitboard.kingAttacks(pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | Bitboard.rookAttacks(rooks | queens, occupied)
+                | Bitboard.bishopAttacks(bishops | queens, occupied);
+    }
+
+    private static int bitboardIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private void index(ChessPiece piece, int square) {
+        // Pieces without a type (the client's highlight markers) only live in squares
+        if (piece == null || piece.getPieceType() == null) {
+            return;
+        }
+        long bit = 1L << square;
+        pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] |= bit;
+        colorBitboards[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        zobristKey ^= Zobrist.piece(piece.getTeamColor(), piece.getPieceType(), square);
+        material[piece.getTeamColor().ordinal()] += Evaluation.material(piece.getPieceType());
+        squareBonus[piece.getTeamColor().ordinal()] += Evaluation.squareBonus(piece.getTeamColor(), piece.getPieceType(), square);
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    private void unindex(ChessPiece piece, int square) {
+        if (piece == null || piece.getPieceType() == null) {
+            return;
+        }
+        long bit = ~(1L << square);
+        pieceBitboards[bitboardIndex(piece.getTeamColor(), piece.getPieceType())] &= bit;
+        colorBitboards[piece.getTeamColor().ordinal()] &= bit;
+        occupied &= bit;
+        zobristKey ^= Zobrist.piece(piece.getTeamColor(), piece.getPieceType(), square);
+        material[piece.getTeamColor().ordinal()] -= Evaluation.material(piece.getPieceType());
+        squareBonus[piece.getTeamColor().ordinal()] -= Evaluation.squareBonus(piece.getTeamColor(), piece.getPieceType(), square);
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+    }
+
+    private void updateKingSquare(ChessGame.TeamColor color) {
+        long kings = pieceBitboards[bitboardIndex(color, ChessPiece.PieceType.KING)];
+        kingSquares[color.ordinal()] = kings == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(kings);
+    }
+
+    private void ensureIndexed() {
+        if (indexedSquares == squares) {
+            return;
+        }
+        // Gson leaves transient fields alone (or null if it skipped the constructor), so start over
+        pieceBitboards = new long[12];
+        colorBitboards = new long[2];
+        occupied = 0L;
+        zobristKey = 0L;
+        material = new int[2];
+        squareBonus = new int[2];
+        kingSquares = new int[]{NO_SQUARE, NO_SQUARE};
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                index(squares[row][col], row * 8 + col);
+            }
+        }
+        indexedSquares = squares;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
@@ -58,31 +338,31 @@ public class ChessBoard {
 
         // White Non-pawns
         for (int col = 1; col <= 8; col++) {
-            ChessPosition position = new ChessPosition(1, col);
+            ChessPosition position = ChessPosition.of(1, col);
             ChessPiece.PieceType pieceType = pieceTypeMap.get(col);
-            ChessPiece piece = new ChessPiece(ChessGame.TeamColor.WHITE, pieceType);
+            ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.WHITE, pieceType);
             addPiece(position, piece);
         }
 
         // White Pawns
         for (int col = 1; col <= 8; col++) {
-            ChessPosition position = new ChessPosition(2, col);
-            ChessPiece piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+            ChessPosition position = ChessPosition.of(2, col);
+            ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
             addPiece(position, piece);
         }
 
         // Black Pawns
         for (int col = 1; col <= 8; col++) {
-            ChessPosition position = new ChessPosition(7, col);
-            ChessPiece piece = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+            ChessPosition position = ChessPosition.of(7, col);
+            ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
             addPiece(position, piece);
         }
 
         // Black Non-Pawns
         for (int col = 1; col <= 8; col++) {
-            ChessPosition position = new ChessPosition(8, col);
+            ChessPosition position = ChessPosition.of(8, col);
             ChessPiece.PieceType pieceType = pieceTypeMap.get(col);
-            ChessPiece piece = new ChessPiece(ChessGame.TeamColor.BLACK, pieceType);
+            ChessPiece piece = ChessPiece.of(ChessGame.TeamColor.BLACK, pieceType);
             addPiece(position, piece);
         }
     }
@@ -100,16 +380,127 @@ public class ChessBoard {
         return map;
     }
 
+    /**
+     * @param fen a FEN string, or just its piece placement field
+     * @return a new board holding the pieces fen's placement field describes
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public static ChessBoard fromFen(CharSequence fen) {
+        ChessBoard board = new ChessBoard();
+        board.readFenPlacement(fen, 0);
+        return board;
+    }
+
+    /**
+     * Reads a FEN piece placement field that starts at index start, adding its pieces to this
+     * board, in one pass over fen without copying it.
+     *
+     * @return the index just past the field
+     */
+    int readFenPlacement(CharSequence fen, int start) {
+        int row = 8;
+        int col = 1;
+        int i = start;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Bad FEN rank " + row + " in " + fen);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                if (col > 8) {
+                    throw new IllegalArgumentException("Bad FEN rank " + row + " in " + fen);
+                }
+                addPiece(Bitboard.square(row, col), fenPiece(c, fen));
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Bad FEN rank " + row + " in " + fen);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("FEN placement must describe 8 full ranks: " + fen);
+        }
+        return i;
+    }
+
+    /**
+     * @return the FEN piece placement field for this board
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendFenPlacement(fen);
+        return fen.toString();
+    }
+
+    void appendFenPlacement(StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = getPiece(Bitboard.square(row, col));
+                if (piece == null || piece.getPieceType() == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(fenChar(piece));
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+    }
+
+    private static ChessPiece fenPiece(char c, CharSequence fen) {
+        ChessGame.TeamColor color = c < 'a' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessPiece.PieceType type = switch (c | 0x20) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown FEN piece '" + c + "' in " + fen);
+        };
+        return ChessPiece.of(color, type);
+    }
+
+    private static char fenChar(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    /**
+     * Boards are equal when they hold the same pieces on the same squares. The Zobrist keys
+     * rule out almost every unequal pair; the bitboards settle the rest exactly.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(squares, that.squares);
+        return getZobristKey() == that.getZobristKey() && Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(squares);
+        return Long.hashCode(getZobristKey());
     }
 }
@@ -8,18 +8,79 @@ import java.util.*;
  */
 public class ChessGame {
 
+    private static final MoveCache VALID_MOVES = new MoveCache(4096);
+
     private TeamColor teamTurn = TeamColor.WHITE;
     private ChessBoard board;
+    // Plies since the last capture or pawn move, for the fifty-move rule
+    private int halfmoveClock;
+    // Every move since the board was set, oldest first; see getPlyCount() and moveAt()
+    private transient UndoStack undoStack = new UndoStack();
+    // Moves taken back with undo(), most recent last, until a new move is made
+    private transient int[] redoMoves = new int[16];
+    private transient int redoCount;
+    private transient MoveList scratchMoves = new MoveList();
+    // The cache validMoves() uses, when not the shared one
+    private transient MoveCache moveCache;
+    // status() of the position whose key is statusKey
+    private transient GameStatus cachedStatus;
+    private transient long statusKey;
+    // Latest published snapshot, for threads that must not touch the live board
+    private transient volatile Position position;
 
     public ChessGame() {
     }
 
+    /**
+     * Copies other's position (board and turn) but not its undo history, so each thread working
+     * on a position can have a game of its own
+     */
+    public ChessGame(ChessGame other) {
+        this.teamTurn = other.teamTurn;
+        this.halfmoveClock = other.halfmoveClock;
+        this.board = other.board == null ? null : new ChessBoard(other.board);
+    }
+
+    /**
+     * Like {@link #ChessGame(ChessGame)}, but the copy also has this game's move history, so it
+     * can take back the game's moves and count repetitions of positions from before the copy
+     */
+    public ChessGame copyWithHistory() {
+        ChessGame copy = new ChessGame(this);
+        copy.undoStack = new UndoStack(undoStack);
+        return copy;
+    }
+
     public TeamColor getTeamTurn() {
         return teamTurn;
     }
 
     public void setTeamTurn(TeamColor team) {
         this.teamTurn = team;
+        if (board != null) {
+            publishPosition();
+        }
+    }
+
+    /**
+     * Returns the position as of the last {@link #makeMove}, {@link #setBoard}, {@link #setTeamTurn}
+     * or {@link #publishPosition()}. Snapshots are immutable, so other threads (observers,
+     * renderers) can read this while the owning thread keeps playing moves. Search moves made with
+     * {@link #pushMove(int)} are not published.
+     */
+    public Position getPosition() {
+        Position snapshot = position;
+        return snapshot != null ? snapshot : publishPosition();
+    }
+
+    /**
+     * Snapshots the board as it is now and publishes it for {@link #getPosition()}. Call this from
+     * the thread that owns the game after changing its board directly.
+     */
+    public Position publishPosition() {
+        Position snapshot = Position.of(board, teamTurn);
+        position = snapshot;
+        return snapshot;
     }
 
     /**
@@ -30,159 +91,376 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Where the game stands for the team whose turn it is
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
+    /**
+     * Results are served from a cache shared by every game (see {@link #getMoveCache()}) unless
+     * this game was given its own with {@link #setMoveCache}, so highlighting a piece and then
+     * moving it only generates its moves once.
+     */
     public HashSet<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = this.board.getPiece(startPosition);
         TeamColor teamColor = piece.getTeamColor();
-        HashSet<ChessMove> moves = piece.pieceMoves(this.board, startPosition);
-        return simulateMoves(moves, teamColor);
+        int square = Bitboard.square(startPosition.getRow(), startPosition.getColumn());
+        MoveCache cache = moveCache != null ? moveCache : VALID_MOVES;
+        return cache.get(getZobristKey(), square, () -> {
+            MoveList moves = scratchMoves;
+            moves.clear();
+            MoveGenerator.generateLegal(board, teamColor, Bitboard.bit(square), moves);
+            return toChessMoves(moves);
+        });
     }
 
-    private HashSet<ChessMove> simulateMoves(HashSet<ChessMove> moves, TeamColor teamColor) {
-        HashSet<ChessMove> newMoves = new HashSet<>();
-
-        for (ChessMove move : moves) {
-            simulateMove(move, teamColor, newMoves);
-        }
+    /**
+     * @return the cache behind {@link #validMoves(ChessPosition)}, for its hit and miss counts
+     */
+    public static MoveCache getMoveCache() {
+        return VALID_MOVES;
+    }
 
-        return newMoves;
+    /**
+     * Gives this game a cache of its own for {@link #validMoves(ChessPosition)}, or null to go back
+     * to the shared one. A cache of its own has hit and miss counts no other game adds to.
+     */
+    public void setMoveCache(MoveCache cache) {
+        this.moveCache = cache;
     }
 
-    private void simulateMove(ChessMove move, TeamColor teamColor, HashSet<ChessMove> newMoves) {
-        ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
-        ChessPiece pieceToRemove = null;
+    /**
+     * @return every legal move the given team could make, whether or not it is their turn
+     */
+    public HashSet<ChessMove> legalMoves(TeamColor teamColor) {
+        MoveList moves = scratchMoves;
+        moves.clear();
+        MoveGenerator.generateLegal(board, teamColor, moves);
+        return toChessMoves(moves);
+    }
 
-        if (board.getPiece(end) != null) {
-            pieceToRemove = this.board.getPiece(end);
-            this.board.removePiece(end);
+    private static HashSet<ChessMove> toChessMoves(MoveList moves) {
+        HashSet<ChessMove> chessMoves = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            chessMoves.add(Move.toChessMove(moves.get(i)));
         }
+        return chessMoves;
+    }
 
-        ChessPiece thisPiece = this.board.getPiece(start);
-        this.board.addPiece(end, thisPiece);
-        this.board.removePiece(start);
+    /**
+     * Same as {@link #pushMove(int)} for a ChessMove
+     */
+    public void pushMove(ChessMove move) {
+        pushMove(Move.encode(move, board));
+    }
 
-        if (!isInCheck(teamColor)) {
-            newMoves.add(move);
+    /**
+     * Plays a {@link Move}-encoded move on the board without checking that it is legal,
+     * remembering what it changed so {@link #popMove()} can take it back. Used to try out
+     * moves; see {@link #makeMove(ChessMove)} for playing one in the game.
+     */
+    public void pushMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moved = board.getPiece(from);
+        ChessPiece captured = board.getPiece(to);
+        undoStack.push(move, moved, captured, teamTurn, getZobristKey(), halfmoveClock);
+        halfmoveClock = captured != null || moved.getPieceType() == ChessPiece.PieceType.PAWN ? 0 : halfmoveClock + 1;
+
+        board.removePiece(from);
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            board.addPiece(to, ChessPiece.of(moved.getTeamColor(), promotion));
+        } else {
+            board.addPiece(to, moved);
         }
+        teamTurn = opponent(moved.getTeamColor());
+    }
 
-        // Undo simulated move
-        this.board.removePiece(end);
-        this.board.addPiece(start, thisPiece);
-
-        if (pieceToRemove != null) {
-            this.board.addPiece(end, pieceToRemove);
+    /**
+     * Takes back the last move made with {@link #pushMove(int)}
+     */
+    public void popMove() {
+        int move = undoStack.peekMove();
+        board.addPiece(Move.from(move), undoStack.peekMoved());
+        if (undoStack.peekCaptured() != null) {
+            board.addPiece(Move.to(move), undoStack.peekCaptured());
+        } else {
+            board.removePiece(Move.to(move));
         }
+        teamTurn = undoStack.peekPriorTurn();
+        halfmoveClock = undoStack.peekPriorClock();
+        undoStack.pop();
     }
 
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
         HashSet<ChessMove> validMoves = validMoves(start);
 
         try {
-            if (validMoves.contains(move)) {
-                performValidMove(move, start, end);
-            } else {
+            if (!validMoves.contains(move)) {
                 throw new InvalidMoveException("Invalid move: " + move);
             }
+            if (board.getPiece(start).getTeamColor() != teamTurn) {
+                throw new InvalidMoveException("Wrong team's turn.");
+            }
         } catch (InvalidMoveException e) {
             System.out.println(e.getMessage());
             throw e;
         }
+
+        redoCount = 0;
+        playAndPublish(Move.encode(move, board));
     }
 
-    private void performValidMove(ChessMove move, ChessPosition start, ChessPosition end) throws InvalidMoveException {
-        if (board.getPiece(end) != null) {
-            this.board.removePiece(end);
-        }
+    // pushMove, then publish the new position, deriving it from the published one when that is current
+    private void playAndPublish(int move) {
+        Position prior = position;
+        boolean priorIsCurrent = prior != null && prior.getZobristKey() == getZobristKey();
+        pushMove(move);
+        position = priorIsCurrent ? prior.after(move) : Position.of(board, teamTurn);
+    }
 
-        ChessPiece piece = this.board.getPiece(start);
+    /**
+     * Takes back the last move of the game, keeping it so {@link #redo()} can replay it
+     *
+     * @return the move taken back, or null if there were no moves to take back
+     */
+    public ChessMove undo() {
+        if (undoStack.size() == 0) {
+            return null;
+        }
+        int move = undoStack.peekMove();
+        popMove();
+        if (redoCount == redoMoves.length) {
+            redoMoves = Arrays.copyOf(redoMoves, redoCount * 2);
+        }
+        redoMoves[redoCount++] = move;
+        publishPosition();
+        return Move.toChessMove(move);
+    }
 
-        if (piece.getTeamColor() != teamTurn) {
-            throw new InvalidMoveException("Wrong team's turn.");
+    /**
+     * Replays the move most recently taken back with {@link #undo()}. Making any other move with
+     * {@link #makeMove} forgets the moves that could have been redone.
+     *
+     * @return the move replayed, or null if there was nothing to redo
+     */
+    public ChessMove redo() {
+        if (redoCount == 0) {
+            return null;
         }
+        int move = redoMoves[--redoCount];
+        playAndPublish(move);
+        return Move.toChessMove(move);
+    }
 
-        this.board.addPiece(end, piece);
-        this.board.removePiece(start);
+    /**
+     * @return the number of moves (plies) played since the board was set
+     */
+    public int getPlyCount() {
+        return undoStack.size();
+    }
 
-        if (move.promotionPiece != null) {
-            ChessPiece promotedPiece = new ChessPiece(piece.getTeamColor(), move.promotionPiece);
-            this.board.removePiece(end);
-            this.board.addPiece(end, promotedPiece);
-        }
+    /**
+     * @return the move played at the given ply, 0 being the first move since the board was set
+     */
+    public ChessMove moveAt(int ply) {
+        return Move.toChessMove(undoStack.moveAt(ply));
+    }
 
-        switchTeamTurn();
+    // moveAt as the Move-encoded int it was played as
+    int encodedMoveAt(int ply) {
+        return undoStack.moveAt(ply);
     }
 
     private void switchTeamTurn() {
-        teamTurn = (teamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        teamTurn = opponent(teamTurn);
+    }
+
+    private static TeamColor opponent(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = getKingPosition(board, teamColor);
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare == ChessBoard.NO_SQUARE) {
+            return false;
+        }
+        return board.isSquareAttacked(kingSquare, opponent(teamColor));
+    }
 
-        for (int i=0; i<board.squares.length; i++){
-            for (int j=0; j<board.squares[i].length; j++){
-                ChessPosition pos = new ChessPosition(i+1,j+1);
-                ChessPiece piece = board.getPiece(pos);
-                if (piece != null){
-                    if (piece.getTeamColor() != teamColor) {
-                        HashSet<ChessMove> moves = piece.pieceMoves(board, pos);
-
-                        for (ChessMove move : moves) {
-                            ChessPosition endPosition = move.getEndPosition();
-
-                            if (endPosition.equals(kingPosition)) {
-                                return true;
-                            }
-                        }
-                    }
-                }
+    public boolean isInCheckmate(TeamColor teamColor) {
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
+    }
+
+    public boolean isInStalemate(TeamColor teamColor) {
+        return !isInCheck(teamColor) && !hasLegalMove(teamColor);
+    }
+
+    /**
+     * @return plies played since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Counts how many times the current position (pieces and side to move) has occurred, this time
+     * included. Only the Zobrist keys of positions since the last capture or pawn move with the
+     * same side to move are compared, since no earlier position can come back. Positions from
+     * before the board was last set are not known.
+     */
+    public int repetitionCount() {
+        long key = getZobristKey();
+        int count = 1;
+        int oldest = Math.max(0, undoStack.size() - halfmoveClock);
+        for (int ply = undoStack.size() - 2; ply >= oldest; ply -= 2) {
+            if (undoStack.keyAt(ply) == key) {
+                count++;
             }
         }
+        return count;
+    }
 
-        return false;
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 3;
     }
 
-    public boolean isInCheckmate(TeamColor teamColor) {
-        ChessPosition kingPosition = getKingPosition(board, teamColor);
-        ChessPiece king = board.getPiece(kingPosition);
-        HashSet<ChessMove> kingMoves = king.pieceMoves(board, kingPosition);
-        HashSet<ChessMove> newKingMoves = simulateMoves(kingMoves, teamColor);
+    /**
+     * @return true once fifty moves by each side have passed without a capture or pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100;
+    }
 
-        return isInCheck(teamColor) && newKingMoves.isEmpty();
+    /**
+     * @return true if the game is drawn: the side to move is stalemated, the position has
+     * occurred three times, or the fifty-move rule applies (unless the side to move is mated)
+     */
+    public boolean isDraw() {
+        if (isThreefoldRepetition()) {
+            return true;
+        }
+        if (isFiftyMoveDraw()) {
+            return status() != GameStatus.CHECKMATE;
+        }
+        return status() == GameStatus.STALEMATE;
     }
 
-    public boolean isInStalemate(TeamColor teamColor) {
-        ChessPosition kingPosition = getKingPosition(board, teamColor);
-//        ChessPiece king = board.pieces.get(kingPosition);
-        ChessPiece king = board.getPiece(kingPosition);
-        HashSet<ChessMove> kingMoves = king.pieceMoves(board, kingPosition);
-        HashSet<ChessMove> newKingMoves = simulateMoves(kingMoves, teamColor);
+    private boolean hasLegalMove(TeamColor teamColor) {
+        return MoveGenerator.hasLegalMove(board, teamColor);
+    }
 
-        return !isInCheck(teamColor) && newKingMoves.isEmpty();
+    /**
+     * @return the status of the team whose turn it is. Worked out once per position: asking again
+     * before the position changes costs one key comparison.
+     */
+    public GameStatus status() {
+        long key = getZobristKey();
+        GameStatus status = cachedStatus;
+        if (status != null && statusKey == key) {
+            return status;
+        }
+        boolean inCheck = isInCheck(teamTurn);
+        if (hasLegalMove(teamTurn)) {
+            status = inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+        } else {
+            status = inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        statusKey = key;
+        cachedStatus = status;
+        return status;
     }
 
     public ChessPosition getKingPosition(ChessBoard board, TeamColor teamColor) {
+        return board.getKingPosition(teamColor);
+    }
 
-        for (int i=0; i<board.squares.length; i++){
-            for (int j=0; j<board.squares[i].length; j++){
-                ChessPosition pos = new ChessPosition(i+1,j+1);
-                ChessPiece piece = board.getPiece(pos);
+    /**
+     * Builds a game from a FEN string. The castling and en passant fields are accepted but
+     * ignored, since neither rule is played here, and so is the fullmove number. A missing side
+     * to move means white; a missing halfmove clock means 0.
+     *
+     * @throws IllegalArgumentException if fen is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int i = board.readFenPlacement(fen, 0);
+        TeamColor turn = TeamColor.WHITE;
+        if (i + 1 < fen.length()) {
+            turn = switch (fen.charAt(i + 1)) {
+                case 'w' -> TeamColor.WHITE;
+                case 'b' -> TeamColor.BLACK;
+                default -> throw new IllegalArgumentException("Bad FEN side to move in " + fen);
+            };
+        }
+        ChessGame game = new ChessGame();
+        game.teamTurn = turn;
+        game.setBoard(board);
+        game.halfmoveClock = readFenClock(fen, i + 2);
+        return game;
+    }
 
-                if (piece != null){
-                    if (piece.getPieceType() == ChessPiece.PieceType.KING && piece.getTeamColor() == teamColor) {
-                        return pos;
-                    }
-                }
+    // Skips the castling and en passant fields that start at index start and reads the halfmove clock
+    private static int readFenClock(String fen, int start) {
+        int i = start;
+        for (int field = 0; field < 2; field++) {
+            while (i < fen.length() && fen.charAt(i) == ' ') {
+                i++;
+            }
+            while (i < fen.length() && fen.charAt(i) != ' ') {
+                i++;
+            }
+        }
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        int clock = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Bad FEN halfmove clock in " + fen);
             }
+            clock = clock * 10 + (c - '0');
         }
+        return clock;
+    }
 
-        return null;
+    /**
+     * @return this game's position as a FEN string. Castling and en passant are always "-", and
+     * the fullmove number is always 1.
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(80);
+        board.appendFenPlacement(fen);
+        fen.append(teamTurn == TeamColor.WHITE ? " w" : " b").append(" - - ").append(halfmoveClock).append(" 1");
+        return fen.toString();
+    }
+
+    /**
+     * @return the Zobrist key of the position: the board's piece placement plus whose turn it is
+     */
+    public long getZobristKey() {
+        long key = board.getZobristKey();
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
     }
 
     public void setBoard(ChessBoard board) {
         this.board = board;
+        undoStack.clear();
+        redoCount = 0;
+        halfmoveClock = 0;
+        position = board == null ? null : Position.of(board, teamTurn);
     }
 
     public ChessBoard getBoard() {
@@ -206,7 +484,7 @@ public class ChessGame {
             sb.append(" | ");
             for (int j = 1; j <= 8; j++) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -260,7 +538,7 @@ public class ChessGame {
             sb.append(" | ");
             for (int j = 8; j >= 1; j--) {
                 // Append the current cell's value to the string
-                ChessPosition pos = new ChessPosition(i, j);
+                ChessPosition pos = ChessPosition.of(i, j);
                 if (board.getPiece(pos) == null){
                     sb.append(" ");
                     sb.append(" | ");
@@ -315,6 +593,6 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, board);
+        return board == null ? Objects.hashCode(teamTurn) : Long.hashCode(getZobristKey());
     }
 }
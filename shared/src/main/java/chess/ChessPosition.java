@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -9,11 +7,42 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
+    // One shared instance per board square, indexed like Bitboard squares
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(Bitboard.row(square), Bitboard.column(square));
+        }
+    }
+
     private final int row;
     private final int col;
+    private final int hash;
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
+        // Same value Objects.hash(row, col) gives, without boxing
+        this.hash = 31 * (31 + row) + col;
+    }
+
+    /**
+     * Returns the shared instance for a square, so callers don't allocate a new position
+     * for every lookup. Rows and columns off the board get a fresh instance instead.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[Bitboard.square(row, col)];
+    }
+
+    /**
+     * @return the shared instance for a square index (see {@link Bitboard})
+     */
+    public static ChessPosition of(int square) {
+        return SQUARES[square];
     }
 
     /**
@@ -34,7 +63,7 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return hash;
     }
 
     /**
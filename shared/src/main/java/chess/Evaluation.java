@@ -0,0 +1,118 @@
+package chess;
+
+/**
+ * Static evaluation terms, in centipawns: a material value per piece type and a piece-square
+ * bonus per (piece, square). {@link ChessBoard} adds and subtracts these as pieces come and go,
+ * so a board's score is always current without rescanning it (see {@link ChessBoard#evaluate()}).
+ * <p>
+ * The tables are the widely used "simplified evaluation function" ones. They are written below
+ * from white's side with rank 8 on top, the way a board is drawn; black uses them mirrored.
+ */
+public final class Evaluation {
+
+    private static final int[] MATERIAL = {
+            0,    // king: never captured, so it carries no material
+            900,  // queen
+            330,  // bishop
+            320,  // knight
+            500,  // rook
+            100   // pawn
+    };
+
+    private static final int[] KING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    // [color * 6 + type][square], indexed like Bitboard squares (a1 = 0)
+    private static final int[][] SQUARE_BONUS = new int[12][64];
+
+    static {
+        int[][] tables = {KING_TABLE, QUEEN_TABLE, BISHOP_TABLE, KNIGHT_TABLE, ROOK_TABLE, PAWN_TABLE};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // the tables list rank 8 first, so white flips the rank; black reads its own side as drawn
+                SQUARE_BONUS[type][square] = tables[type][square ^ 56];
+                SQUARE_BONUS[6 + type][square] = tables[type][square];
+            }
+        }
+    }
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return what a piece of the given type is worth, in centipawns
+     */
+    public static int material(ChessPiece.PieceType type) {
+        return MATERIAL[type.ordinal()];
+    }
+
+    /**
+     * @return the bonus (or, if negative, penalty) for a piece of the given team and type standing on square
+     */
+    public static int squareBonus(ChessGame.TeamColor color, ChessPiece.PieceType type, int square) {
+        return SQUARE_BONUS[color.ordinal() * 6 + type.ordinal()][square];
+    }
+}
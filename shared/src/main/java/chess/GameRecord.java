@@ -0,0 +1,90 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of a whole game for storage: where its move history starts and every move since,
+ * so a game read back can still undo its moves and spot repetitions. It is
+ * <ul>
+ *     <li>the byte {@value #MARKER}, which no {@link BoardCodec} encoding starts with (square
+ *     codes stop at 12) and no JSON text does either</li>
+ *     <li>the position the history starts from, in {@link BoardCodec} form</li>
+ *     <li>each move, oldest first, as a big-endian {@link Move}-encoded short</li>
+ * </ul>
+ * Moves only ever go on the end, so a stored record grows by appending {@link #encodeMove} for
+ * each move played rather than by being written again.
+ */
+public final class GameRecord {
+
+    public static final int MARKER = 0xFF;
+    public static final int MOVE_BYTES = 2;
+
+    private GameRecord() {
+    }
+
+    /**
+     * @return the length of a record of a game with the given number of moves
+     */
+    public static int size(int plies) {
+        return 1 + BoardCodec.SIZE + plies * MOVE_BYTES;
+    }
+
+    public static byte[] encode(ChessGame game) {
+        int plies = game.getPlyCount();
+        ByteBuffer out = ByteBuffer.allocate(size(plies));
+        out.put((byte) MARKER);
+        BoardCodec.write(start(game), out);
+        for (int ply = 0; ply < plies; ply++) {
+            out.putShort((short) game.encodedMoveAt(ply));
+        }
+        return out.array();
+    }
+
+    /**
+     * @return the bytes to append to the record of game as it was before the given ply was played
+     */
+    public static byte[] encodeMove(ChessGame game, int ply) {
+        int move = game.encodedMoveAt(ply);
+        return new byte[]{(byte) (move >> 8), (byte) move};
+    }
+
+    /**
+     * @return the game, with its move history, that {@link #encode} wrote
+     * @throws IllegalArgumentException if the bytes are not a valid record
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (!isRecord(bytes)) {
+            throw new IllegalArgumentException("A game record starts with " + MARKER);
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        ChessGame game = BoardCodec.read(in);
+        if (in.remaining() % MOVE_BYTES != 0) {
+            throw new IllegalArgumentException("A game record ends with whole moves");
+        }
+        while (in.hasRemaining()) {
+            int move = in.getShort() & 0xFFFF;
+            ChessPiece moved = game.getBoard().getPiece(Move.from(move));
+            if (moved == null || moved.getTeamColor() != game.getTeamTurn()) {
+                throw new IllegalArgumentException("Move " + game.getPlyCount() + " has no piece of the side to move");
+            }
+            game.pushMove(move);
+        }
+        game.publishPosition();
+        return game;
+    }
+
+    public static boolean isRecord(byte[] bytes) {
+        return bytes.length > 0 && (bytes[0] & 0xFF) == MARKER;
+    }
+
+    /**
+     * @return a new game in the position game's move history starts from, with no history
+     */
+    public static ChessGame start(ChessGame game) {
+        ChessGame start = game.copyWithHistory();
+        while (start.getPlyCount() > 0) {
+            start.popMove();
+        }
+        return new ChessGame(start);
+    }
+}
@@ -0,0 +1,70 @@
+package chess;
+
+/**
+ * Packs a move into the low 16 bits of an int so move generation and search can pass
+ * moves around without allocating. {@link ChessMove} objects are only built at the API
+ * boundary, with {@link #toChessMove(int)}.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square (square indexes as in {@link Bitboard}),
+ * bits 12-14 promotion piece (0 for none, otherwise {@code PieceType.ordinal() + 1}) and
+ * bit 15 set when the move captures.
+ */
+public final class Move {
+
+    /**
+     * Never a real move: its start and end squares are the same
+     */
+    public static final int NONE = 0;
+
+    private static final int CAPTURE = 1 << 15;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, boolean capture) {
+        int move = from | (to << 6);
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        if (capture) {
+            move |= CAPTURE;
+        }
+        return move;
+    }
+
+    /**
+     * Encodes a ChessMove, reading the board to tell whether it captures
+     */
+    public static int encode(ChessMove move, ChessBoard board) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        int to = Bitboard.square(end.getRow(), end.getColumn());
+        return encode(Bitboard.square(start.getRow(), start.getColumn()), to, move.getPromotionPiece(),
+                board.getPiece(to) != null);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the piece a pawn is promoted to, or null if the move isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotion = (move >>> 12) & 0x7;
+        return promotion == 0 ? null : TYPES[promotion - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the legal moves of one square in one position, keyed by the position's
+ * Zobrist key and the square. A position that changes gets a new key, so entries never need to
+ * be invalidated; stale ones just age out. Safe to share between threads.
+ */
+public class MoveCache {
+
+    private record Key(long positionKey, int square) {
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Set<ChessMove>> entries;
+    private long hits;
+    private long misses;
+
+    public MoveCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Set<ChessMove>> eldest) {
+                return size() > MoveCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @return a new set holding the moves cached for (positionKey, square), computing and caching
+     * them first if they are not there
+     */
+    public HashSet<ChessMove> get(long positionKey, int square, Supplier<? extends Set<ChessMove>> compute) {
+        Key key = new Key(positionKey, square);
+        Set<ChessMove> moves;
+        synchronized (this) {
+            moves = entries.get(key);
+            if (moves != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (moves == null) {
+            // computed outside the lock; two threads missing on the same key just do the work twice
+            moves = Set.copyOf(compute.get());
+            synchronized (this) {
+                entries.put(key, moves);
+            }
+        }
+        return new HashSet<>(moves);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
@@ -0,0 +1,234 @@
+package chess;
+
+/**
+ * Generates moves straight from a board's bitboards into a {@link MoveList}.
+ * <p>
+ * {@link #generateLegal} lists only legal moves: it finds the checks against the mover's king
+ * and the pieces pinned to it first, then limits each piece's targets to match, so no move has
+ * to be made and tested. {@link #generate} lists pseudo-legal moves instead (moves that follow
+ * each piece's movement rules but may leave the mover's own king in check).
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends the pseudo-legal moves of every piece of one team
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        long pieces = board.getTeamBitboard(color);
+        while (pieces != 0) {
+            generate(board, Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on one square; does nothing if it is empty
+     */
+    public static void generate(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null || piece.getPieceType() == null) {
+            return;
+        }
+        ChessGame.TeamColor color = piece.getTeamColor();
+        addMoves(square, piece.getPieceType(), targets(board, square, color, piece.getPieceType()),
+                board.getTeamBitboard(opponent(color)), moves);
+    }
+
+    /**
+     * Appends every legal move of one team
+     */
+    public static void generateLegal(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generateLegal(board, color, -1L, moves);
+    }
+
+    /**
+     * Appends the legal moves of the team's pieces standing on the given squares.
+     * <p>
+     * Rather than trying each move and testing for check, this works out once which enemy
+     * pieces give check and which of the team's pieces are pinned to their king, and only
+     * emits moves that respect both: while in check, non-king moves must capture the checker
+     * or block its ray (and only the king may move in double check); a pinned piece may only
+     * move along the line through its king and the pinner; the king may only step to squares
+     * no enemy attacks once it has left its own square.
+     * <p>
+     * A team without a king has no checks or pins, so all its pseudo-legal moves are legal.
+     *
+     * @param from the squares whose pieces to generate moves for (-1 for all of them)
+     */
+    public static void generateLegal(ChessBoard board, ChessGame.TeamColor color, long from, MoveList moves) {
+        int king = board.getKingSquare(color);
+        if (king == ChessBoard.NO_SQUARE) {
+            long pieces = board.getTeamBitboard(color) & from;
+            while (pieces != 0) {
+                generate(board, Long.numberOfTrailingZeros(pieces), moves);
+                pieces &= pieces - 1;
+            }
+            return;
+        }
+
+        ChessGame.TeamColor enemy = opponent(color);
+        long enemies = board.getTeamBitboard(enemy);
+        long occupied = board.getOccupied();
+        long kingBit = Bitboard.bit(king);
+
+        if ((from & kingBit) != 0) {
+            long targets = Attacks.king(king) & ~board.getTeamBitboard(color);
+            long withoutKing = occupied & ~kingBit;
+            long safe = 0L;
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (!board.isSquareAttacked(to, enemy, withoutKing)) {
+                    safe |= Bitboard.bit(to);
+                }
+                targets &= targets - 1;
+            }
+            addMoves(king, ChessPiece.PieceType.KING, safe, enemies, moves);
+        }
+
+        long checkers = board.getAttackers(king, enemy);
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        long allowed = checkers == 0 ? -1L : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        long pinned = pinnedPieces(board, king, color);
+
+        long pieces = board.getTeamBitboard(color) & ~kingBit & from;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            ChessPiece.PieceType type = board.getPiece(square).getPieceType();
+            long targets = targets(board, square, color, type) & allowed;
+            if ((pinned & Bitboard.bit(square)) != 0) {
+                targets &= Attacks.line(king, square);
+            }
+            addMoves(square, type, targets, enemies, moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Same rules as {@link #generateLegal(ChessBoard, ChessGame.TeamColor, long, MoveList)}, but
+     * stops at the first legal move instead of listing them. The king, whose moves each need an
+     * attack test, is tried last.
+     *
+     * @return true if the team has at least one legal move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        int king = board.getKingSquare(color);
+        long own = board.getTeamBitboard(color);
+        if (king == ChessBoard.NO_SQUARE) {
+            for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                if (targets(board, square, color, board.getPiece(square).getPieceType()) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ChessGame.TeamColor enemy = opponent(color);
+        long kingBit = Bitboard.bit(king);
+        long checkers = board.getAttackers(king, enemy);
+        if (Long.bitCount(checkers) <= 1) {
+            long allowed = checkers == 0 ? -1L : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+            long pinned = pinnedPieces(board, king, color);
+            for (long pieces = own & ~kingBit; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                long targets = targets(board, square, color, board.getPiece(square).getPieceType()) & allowed;
+                if ((pinned & Bitboard.bit(square)) != 0) {
+                    targets &= Attacks.line(king, square);
+                }
+                if (targets != 0) {
+                    return true;
+                }
+            }
+        }
+
+        long withoutKing = board.getOccupied() & ~kingBit;
+        for (long targets = Attacks.king(king) & ~own; targets != 0; targets &= targets - 1) {
+            if (!board.isSquareAttacked(Long.numberOfTrailingZeros(targets), enemy, withoutKing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the team's pieces that are the only thing between their king and an enemy slider
+     */
+    private static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor color) {
+        ChessGame.TeamColor enemy = opponent(color);
+        long queens = board.getPieceBitboard(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rook(king, 0L) & (board.getPieceBitboard(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(king, 0L) & (board.getPieceBitboard(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long occupied = board.getOccupied();
+        long own = board.getTeamBitboard(color);
+        long pinned = 0L;
+        while (snipers != 0) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    private static void addMoves(int from, ChessPiece.PieceType type, long targets, long enemies, MoveList moves) {
+        boolean promotes = type == ChessPiece.PieceType.PAWN && (targets & (Bitboard.ROW_1 | Bitboard.ROW_8)) != 0;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            boolean capture = (enemies & Bitboard.bit(to)) != 0;
+            if (promotes) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(Move.encode(from, to, promotion, capture));
+                }
+            } else {
+                moves.add(Move.encode(from, to, null, capture));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * @return the squares a piece of the given team and type on square can move to,
+     * ignoring whether the move would leave its king in check
+     */
+    public static long targets(ChessBoard board, int square, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        long occupied = board.getOccupied();
+        long own = board.getTeamBitboard(color);
+        return switch (type) {
+            case KING -> Attacks.king(square) & ~own;
+            case QUEEN -> Attacks.queen(square, occupied) & ~own;
+            case BISHOP -> Attacks.bishop(square, occupied) & ~own;
+            case KNIGHT -> Attacks.knight(square) & ~own;
+            case ROOK -> Attacks.rook(square, occupied) & ~own;
+            case PAWN -> pawnTargets(board, square, color);
+        };
+    }
+
+    private static long pawnTargets(ChessBoard board, int square, ChessGame.TeamColor color) {
+        long empty = ~board.getOccupied();
+        long pawn = Bitboard.bit(square);
+        long pushes;
+        if (color == ChessGame.TeamColor.WHITE) {
+            long single = Bitboard.north(pawn) & empty;
+            pushes = single | (Bitboard.north(single & (Bitboard.ROW_2 << 8)) & empty);
+        } else {
+            long single = Bitboard.south(pawn) & empty;
+            pushes = single | (Bitboard.south(single & (Bitboard.ROW_7 >>> 8)) & empty);
+        }
+        return pushes | (Attacks.pawn(color, square) & board.getTeamBitboard(opponent(color)));
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Reusable buffer of {@link Move}-encoded moves. Generators append to it; callers
+ * {@link #clear()} it and fill it again instead of allocating a new collection per position.
+ * <p>
+ * Each move also has an int score slot for move ordering: a search scores the moves once with
+ * {@link #setScore(int, int)}, then takes them best first with {@link #pickNext(int)}, which
+ * sorts only as far as it needs to, since most cutoffs come from the first move or two.
+ */
+public class MoveList {
+
+    /**
+     * More than the most legal moves any chess position has (218)
+     */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private final int[] scores = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the index of move in the list, or -1 if it is not there
+     */
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    /**
+     * Moves the highest-scored move from index onward to index (one selection sort step)
+     *
+     * @return that move
+     */
+    public int pickNext(int index) {
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            swap(index, best);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Drops every move the filter accepts, keeping the rest in order. Scores are not kept.
+     */
+    public void removeIf(IntPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test(moves[i])) {
+                moves[kept++] = moves[i];
+            }
+        }
+        size = kept;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
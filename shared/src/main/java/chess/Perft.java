@@ -0,0 +1,244 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth. Because the counts for
+ * well-known positions are published, a mismatch pins down a move generation bug, and the time
+ * taken doubles as a benchmark of the make/unmake and generation code.
+ * <p>
+ * Run {@link #main(String[])} to check every {@link #REFERENCES reference position} and print
+ * nodes per second.
+ */
+public final class Perft {
+
+    /**
+     * A position, in FEN, with its known perft counts; {@code counts[i]} is the count at depth i + 1
+     */
+    public record Reference(String name, String fen, long... counts) {
+
+        public ChessGame toGame() {
+            return ChessGame.fromFen(fen);
+        }
+    }
+
+    /**
+     * Nodes counted and time taken by one perft run
+     */
+    public record Result(long nodes, long nanos) {
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Outcome of a {@link #parallelDivide(ChessGame, int, int)}: the count below each root move,
+     * the time the whole run took, and what each worker thread did
+     */
+    public record ParallelResult(Map<ChessMove, Long> divide, Result total, Map<String, Result> perThread) {
+
+        public long nodes() {
+            return total.nodes();
+        }
+    }
+
+    /**
+     * Positions whose counts do not depend on castling or en passant, which this engine does
+     * not play, at the depths listed.
+     */
+    public static final List<Reference> REFERENCES = List.of(
+            new Reference("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1", 20, 400, 8_902, 197_281),
+            new Reference("promotions", "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", 24, 496, 9_483, 182_838),
+            new Reference("rook endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191)
+    );
+
+    private Perft() {
+    }
+
+    /**
+     * @return the number of leaf nodes of the legal move tree below game's position, depth plies
+     * deep. The game is left in the position it started in.
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, newLists(depth));
+    }
+
+    /**
+     * Like {@link #perft(ChessGame, int)}, timed
+     */
+    public static Result run(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the perft count below each legal root move at depth - 1, in generation order.
+     * The counts add up to {@link #perft(ChessGame, int)} at depth.
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        }
+        MoveList[] lists = newLists(depth);
+        MoveList root = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), root);
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < root.size(); i++) {
+            game.pushMove(root.get(i));
+            counts.put(Move.toChessMove(root.get(i)), perft(game, depth - 1, lists));
+            game.popMove();
+        }
+        return counts;
+    }
+
+    /**
+     * {@link #divide(ChessGame, int)} with the root moves spread over a ForkJoinPool of the given
+     * size. Every root move is searched on its own copy of the game, so game itself is never
+     * touched by the workers.
+     */
+    public static ParallelResult parallelDivide(ChessGame game, int depth, int threads) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        }
+        MoveList root = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), root);
+        Map<String, Result> perThread = new ConcurrentHashMap<>();
+        List<RootMoveTask> tasks = new ArrayList<>(root.size());
+        for (int i = 0; i < root.size(); i++) {
+            tasks.add(new RootMoveTask(new ChessGame(game), root.get(i), depth - 1, perThread));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                    return null;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        long nodes = 0;
+        for (RootMoveTask task : tasks) {
+            counts.put(Move.toChessMove(task.move), task.getRawResult());
+            nodes += task.getRawResult();
+        }
+        return new ParallelResult(counts, new Result(nodes, nanos), new TreeMap<>(perThread));
+    }
+
+    /**
+     * @return the same count as {@link #perft(ChessGame, int)}, computed on the given number of threads
+     */
+    public static long parallelPerft(ChessGame game, int depth, int threads) {
+        return depth == 0 ? 1 : parallelDivide(game, depth, threads).nodes();
+    }
+
+    // tasks only ever run in the pool that made them and are never serialized
+    @SuppressWarnings("serial")
+    private static class RootMoveTask extends RecursiveTask<Long> {
+
+        private final ChessGame game;
+        private final int move;
+        private final int depth;
+        private final Map<String, Result> perThread;
+
+        RootMoveTask(ChessGame game, int move, int depth, Map<String, Result> perThread) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+            this.perThread = perThread;
+        }
+
+        @Override
+        protected Long compute() {
+            long start = System.nanoTime();
+            game.pushMove(move);
+            long nodes = perft(game, depth, newLists(depth));
+            game.popMove();
+            Result spent = new Result(nodes, System.nanoTime() - start);
+            perThread.merge(Thread.currentThread().getName(), spent,
+                    (a, b) -> new Result(a.nodes() + b.nodes(), a.nanos() + b.nanos()));
+            return nodes;
+        }
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        moves.clear();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.pushMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.popMove();
+        }
+        return nodes;
+    }
+
+    // one list per ply, so recursion never allocates
+    private static MoveList[] newLists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Checks every reference position at every listed depth and prints the timings. An optional
+     * first argument caps the depth; a second one greater than 1 also runs the deepest check of
+     * each position in parallel on that many threads and prints how the work was shared.
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        boolean allPassed = true;
+        for (Reference reference : REFERENCES) {
+            ChessGame game = reference.toGame();
+            for (int depth = 1; depth <= Math.min(maxDepth, reference.counts().length); depth++) {
+                Result result = run(game, depth);
+                long expected = reference.counts()[depth - 1];
+                boolean passed = result.nodes() == expected;
+                allPassed &= passed;
+                System.out.printf("%-14s depth %d: %,12d nodes %s %,12d nps%n", reference.name(), depth,
+                        result.nodes(), passed ? "ok  " : "FAIL (expected " + expected + ")", result.nodesPerSecond());
+            }
+            if (threads > 1) {
+                int depth = Math.min(maxDepth, reference.counts().length);
+                ParallelResult parallel = parallelDivide(game, depth, threads);
+                long expected = reference.counts()[depth - 1];
+                allPassed &= parallel.nodes() == expected;
+                System.out.printf("%-14s depth %d on %d threads: %,12d nodes %s %,12d nps%n", reference.name(), depth,
+                        threads, parallel.nodes(), parallel.nodes() == expected ? "ok  " : "FAIL (expected " + expected + ")",
+                        parallel.total().nodesPerSecond());
+                parallel.perThread().forEach((thread, result) -> System.out.printf("    %-28s %,12d nodes %,12d nps%n",
+                        thread, result.nodes(), result.nodesPerSecond()));
+            }
+        }
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a chess position: where every piece stands and whose turn it is.
+ * Unlike {@link ChessBoard} it can be handed to any number of threads without copying or locking.
+ * <p>
+ * Each team's pieces are kept in their own array of six bitboards, and arrays are never written
+ * once a snapshot is built. {@link #after(int)} only copies the arrays a move touches, so a move
+ * that captures nothing shares the opponent's array with the snapshot it came from.
+ */
+public final class Position {
+
+    private final long[] whitePieces;
+    private final long[] blackPieces;
+    private final ChessGame.TeamColor teamTurn;
+    private final long zobristKey;
+
+    private Position(long[] whitePieces, long[] blackPieces, ChessGame.TeamColor teamTurn, long zobristKey) {
+        this.whitePieces = whitePieces;
+        this.blackPieces = blackPieces;
+        this.teamTurn = teamTurn;
+        this.zobristKey = zobristKey;
+    }
+
+    /**
+     * @return a snapshot of board with teamTurn to move; later changes to board do not affect it
+     */
+    public static Position of(ChessBoard board, ChessGame.TeamColor teamTurn) {
+        long[] white = new long[6];
+        long[] black = new long[6];
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            white[type.ordinal()] = board.getPieceBitboard(ChessGame.TeamColor.WHITE, type);
+            black[type.ordinal()] = board.getPieceBitboard(ChessGame.TeamColor.BLACK, type);
+        }
+        long key = board.getZobristKey();
+        if (teamTurn == ChessGame.TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        return new Position(white, black, teamTurn, key);
+    }
+
+    /**
+     * @param move a {@link Move}-encoded move of the side to move. It is applied as given, not
+     *             checked for legality.
+     * @return the position after move, with the other team to move
+     */
+    public Position after(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessGame.TeamColor mover = teamTurn;
+        ChessGame.TeamColor opponent = MoveGenerator.opponent(mover);
+        ChessPiece.PieceType moved = typeAt(pieces(mover), from);
+        if (moved == null) {
+            throw new IllegalArgumentException("No " + mover + " piece on the move's start square");
+        }
+
+        long key = zobristKey ^ Zobrist.BLACK_TO_MOVE;
+        long[] mine = pieces(mover).clone();
+        long[] theirs = pieces(opponent);
+        ChessPiece.PieceType captured = typeAt(theirs, to);
+        if (captured != null) {
+            theirs = theirs.clone();
+            theirs[captured.ordinal()] &= ~Bitboard.bit(to);
+            key ^= Zobrist.piece(opponent, captured, to);
+        }
+        ChessPiece.PieceType placed = Move.promotion(move) != null ? Move.promotion(move) : moved;
+        mine[moved.ordinal()] &= ~Bitboard.bit(from);
+        mine[placed.ordinal()] |= Bitboard.bit(to);
+        key ^= Zobrist.piece(mover, moved, from) ^ Zobrist.piece(mover, placed, to);
+
+        return mover == ChessGame.TeamColor.WHITE
+                ? new Position(mine, theirs, opponent, key)
+                : new Position(theirs, mine, opponent, key);
+    }
+
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return the same key {@link ChessGame#getZobristKey()} gives for this position
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public long getPieceBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces(color)[type.ordinal()];
+    }
+
+    public long getTeamBitboard(ChessGame.TeamColor color) {
+        long team = 0L;
+        for (long bitboard : pieces(color)) {
+            team |= bitboard;
+        }
+        return team;
+    }
+
+    public long getOccupied() {
+        return getTeamBitboard(ChessGame.TeamColor.WHITE) | getTeamBitboard(ChessGame.TeamColor.BLACK);
+    }
+
+    /**
+     * @return the (shared) piece on position, or null if the square is empty
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        int square = Bitboard.square(position.getRow(), position.getColumn());
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            ChessPiece.PieceType type = typeAt(pieces(color), square);
+            if (type != null) {
+                return ChessPiece.of(color, type);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a new, mutable board holding this position's pieces
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            long[] pieces = pieces(color);
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                long bitboard = pieces[type.ordinal()];
+                while (bitboard != 0) {
+                    board.addPiece(Long.numberOfTrailingZeros(bitboard), ChessPiece.of(color, type));
+                    bitboard &= bitboard - 1;
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return a new game in this position, with no move history
+     */
+    public ChessGame toGame() {
+        ChessGame game = new ChessGame();
+        game.setBoard(toBoard());
+        game.setTeamTurn(teamTurn);
+        return game;
+    }
+
+    private long[] pieces(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? whitePieces : blackPieces;
+    }
+
+    private static ChessPiece.PieceType typeAt(long[] pieces, int square) {
+        long bit = Bitboard.bit(square);
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            if ((pieces[type.ordinal()] & bit) != 0) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Position that = (Position) o;
+        return zobristKey == that.zobristKey && teamTurn == that.teamTurn
+                && Arrays.equals(whitePieces, that.whitePieces) && Arrays.equals(blackPieces, that.blackPieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+}
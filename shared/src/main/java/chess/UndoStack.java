@@ -0,0 +1,121 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Stack of everything needed to take back moves made with
+ * {@link ChessGame#pushMove(int)}. Bottom to top it is also the game's move
+ * history, so any entry can be read back by index.
+ * <p>
+ * Records are stored in parallel arrays that double when full, so pushing and
+ * popping only allocate when a game outgrows every game before it.
+ */
+class UndoStack {
+
+    static final int INITIAL_CAPACITY = 256;
+
+    private int[] moves = new int[INITIAL_CAPACITY];
+    private ChessPiece[] movedPieces = new ChessPiece[INITIAL_CAPACITY];
+    private ChessPiece[] capturedPieces = new ChessPiece[INITIAL_CAPACITY];
+    private ChessGame.TeamColor[] priorTurns = new ChessGame.TeamColor[INITIAL_CAPACITY];
+    private long[] priorKeys = new long[INITIAL_CAPACITY];
+    private int[] priorClocks = new int[INITIAL_CAPACITY];
+    private int size;
+
+    UndoStack() {
+    }
+
+    UndoStack(UndoStack other) {
+        moves = other.moves.clone();
+        movedPieces = other.movedPieces.clone();
+        capturedPieces = other.capturedPieces.clone();
+        priorTurns = other.priorTurns.clone();
+        priorKeys = other.priorKeys.clone();
+        priorClocks = other.priorClocks.clone();
+        size = other.size;
+    }
+
+    void push(int move, ChessPiece moved, ChessPiece captured, ChessGame.TeamColor priorTurn,
+              long priorKey, int priorClock) {
+        if (size == moves.length) {
+            grow();
+        }
+        moves[size] = move;
+        movedPieces[size] = moved;
+        capturedPieces[size] = captured;
+        priorTurns[size] = priorTurn;
+        priorKeys[size] = priorKey;
+        priorClocks[size] = priorClock;
+        size++;
+    }
+
+    /**
+     * Drops the top record; read it with the peek methods first
+     */
+    void pop() {
+        if (size == 0) {
+            throw new IllegalStateException("No moves to undo");
+        }
+        size--;
+        movedPieces[size] = null;
+        capturedPieces[size] = null;
+        priorTurns[size] = null;
+    }
+
+    int peekMove() {
+        return moves[size - 1];
+    }
+
+    ChessPiece peekMoved() {
+        return movedPieces[size - 1];
+    }
+
+    ChessPiece peekCaptured() {
+        return capturedPieces[size - 1];
+    }
+
+    ChessGame.TeamColor peekPriorTurn() {
+        return priorTurns[size - 1];
+    }
+
+    int peekPriorClock() {
+        return priorClocks[size - 1];
+    }
+
+    /**
+     * @return the Zobrist key of the position the move at index was played from
+     */
+    long keyAt(int index) {
+        return priorKeys[index];
+    }
+
+    /**
+     * @return the move of the record at index, 0 being the bottom (oldest)
+     */
+    int moveAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No move " + index + " in a history of " + size);
+        }
+        return moves[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        while (size > 0) {
+            pop();
+        }
+    }
+
+    private void grow() {
+        int capacity = moves.length * 2;
+        moves = Arrays.copyOf(moves, capacity);
+        movedPieces = Arrays.copyOf(movedPieces, capacity);
+        capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+        priorTurns = Arrays.copyOf(priorTurns, capacity);
+        priorKeys = Arrays.copyOf(priorKeys, capacity);
+        priorClocks = Arrays.copyOf(priorClocks, capacity);
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing: a position's key is the XOR of one key per
+ * (piece, square) pair on the board, plus {@link #BLACK_TO_MOVE} when it is black's turn.
+ * Adding or removing a piece is then a single XOR, so boards keep their key up to date as
+ * they change instead of rehashing.
+ * <p>
+ * The keys come from a fixed-seed generator, so every JVM computes the same key for the same
+ * position and keys can be stored (opening books, caches on disk).
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+
+    public static final long BLACK_TO_MOVE;
+
+    private static long state = 0x5EED_C0DE_2400_0001L;
+
+    static {
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = next();
+            }
+        }
+        BLACK_TO_MOVE = next();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece of the given team and type standing on square
+     */
+    public static long piece(ChessGame.TeamColor color, ChessPiece.PieceType type, int square) {
+        return PIECE_SQUARE[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    // SplitMix64
+    private static long next() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
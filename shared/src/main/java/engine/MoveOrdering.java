@@ -0,0 +1,147 @@
+package engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.Arrays;
+
+/**
+ * Decides which moves a {@link Search} tries first, since alpha-beta prunes the most when the
+ * best move comes first. In order:
+ * <ol>
+ *     <li>the {@link TranspositionTable} move, best in an earlier search of the position</li>
+ *     <li>captures, most valuable victim first, then least valuable attacker (MVV-LVA), and promotions</li>
+ *     <li>two killer moves per ply: quiet moves that caused a cutoff at the same ply elsewhere in the tree</li>
+ *     <li>other quiet moves by butterfly history: how often, and how deep, each
+ *     (team, from square, to square) has caused a cutoff so far in this search</li>
+ * </ol>
+ * It also counts cutoffs, and how many came from the first move tried, as a measure of how well
+ * the ordering works.
+ */
+public final class MoveOrdering {
+
+    private static final int TABLE_MOVE = 1_000_000;
+    private static final int CAPTURE = 500_000;
+    private static final int PROMOTION = 400_000;
+    private static final int FIRST_KILLER = 300_002;
+    private static final int SECOND_KILLER = 300_001;
+    // history scores stay below the killers
+    private static final int MAX_HISTORY = 300_000;
+
+    // indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] VICTIM_VALUE = {600, 500, 300, 300, 400, 100};
+    private static final int[] ATTACKER_VALUE = {6, 5, 3, 3, 4, 1};
+
+    private final int[][] killers = new int[Search.MAX_PLY + 1][2];
+    private final int[][][] history = new int[2][64][64];
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    /**
+     * Forgets killers, history and statistics, for a new search
+     */
+    public void clear() {
+        for (int[] ply : killers) {
+            Arrays.fill(ply, Move.NONE);
+        }
+        for (int[][] team : history) {
+            for (int[] from : team) {
+                Arrays.fill(from, 0);
+            }
+        }
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+    }
+
+    /**
+     * Scores every move in moves, generated for turn on board at ply, for {@link MoveList#pickNext(int)}
+     */
+    public void score(MoveList moves, ChessBoard board, ChessGame.TeamColor turn, int ply, int tableMove) {
+        int[][] historyOfTeam = history[turn.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == tableMove) {
+                score = TABLE_MOVE;
+            } else if (Move.isCapture(move)) {
+                score = CAPTURE + mvvLva(board, move);
+            } else if (Move.promotion(move) != null) {
+                score = PROMOTION + VICTIM_VALUE[Move.promotion(move).ordinal()];
+            } else if (move == killers[ply][0]) {
+                score = FIRST_KILLER;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER;
+            } else {
+                score = historyOfTeam[Move.from(move)][Move.to(move)];
+            }
+            moves.setScore(i, score);
+        }
+    }
+
+    /**
+     * Scores captures and promotions only, for quiescence search
+     */
+    public void scoreCaptures(MoveList moves, ChessBoard board) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = Move.isCapture(move) ? CAPTURE + mvvLva(board, move) : 0;
+            if (Move.promotion(move) != null) {
+                score += PROMOTION + VICTIM_VALUE[Move.promotion(move).ordinal()];
+            }
+            moves.setScore(i, score);
+        }
+    }
+
+    /**
+     * Records that move, the index-th tried, caused a beta cutoff at ply with depth plies left.
+     * A quiet move becomes a killer for the ply and gains history.
+     */
+    public void cutoff(int move, int index, ChessGame.TeamColor turn, int ply, int depth) {
+        cutoffs++;
+        if (index == 0) {
+            firstMoveCutoffs++;
+        }
+        if (Move.isCapture(move) || Move.promotion(move) != null) {
+            return;
+        }
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromSquare = history[turn.ordinal()][Move.from(move)];
+        fromSquare[Move.to(move)] += depth * depth;
+        if (fromSquare[Move.to(move)] >= MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    private static int mvvLva(ChessBoard board, int move) {
+        ChessPiece victim = board.getPiece(Move.to(move));
+        ChessPiece attacker = board.getPiece(Move.from(move));
+        int victimValue = victim == null ? 0 : VICTIM_VALUE[victim.getPieceType().ordinal()];
+        int attackerValue = attacker == null ? 0 : ATTACKER_VALUE[attacker.getPieceType().ordinal()];
+        return victimValue - attackerValue;
+    }
+
+    // keeps the history's proportions while making room below the killers
+    private void ageHistory() {
+        for (int[][] team : history) {
+            for (int[] from : team) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] /= 2;
+                }
+            }
+        }
+    }
+}
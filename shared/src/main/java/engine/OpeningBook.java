@@ -0,0 +1,153 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book: moves worth playing in known positions, so a computer player can skip
+ * the search for its first moves.
+ * <p>
+ * The book is a file memory-mapped with {@link FileChannel#map}, so it costs no heap however big
+ * it is, and any number of threads and games can read one instance. The file is
+ * <ul>
+ *     <li>a header: the int {@link #MAGIC}, then the number of entries as an int</li>
+ *     <li>{@value #ENTRY_BYTES}-byte entries sorted by key, then by move: the position's
+ *     {@link ChessGame#getZobristKey() Zobrist key} as a long, the {@link Move}-encoded move as a
+ *     short, and the move's weight (how often it was played) as an unsigned short</li>
+ * </ul>
+ * Lookups binary search the mapped file and allocate nothing. {@link OpeningBookBuilder} writes books.
+ */
+public final class OpeningBook {
+
+    public static final int MAGIC = 0x43424B31; // "CBK1"
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 12;
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Maps the book at path. The file stays mapped, and must not change, as long as the book is in use.
+     *
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not an opening book");
+            }
+            int size = mapped.getInt(4);
+            if (size < 0 || (long) size * ENTRY_BYTES != mapped.limit() - HEADER_BYTES) {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            return new OpeningBook(mapped, size);
+        }
+    }
+
+    /**
+     * @return the number of (position, move) entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the most played move in the position with the given key, or {@link Move#NONE} if
+     * the position is not in the book
+     */
+    public int bestMove(long key) {
+        int best = Move.NONE;
+        int bestWeight = -1;
+        for (int i = firstIndex(key); i < size && keyAt(i) == key; i++) {
+            if (weightAt(i) > bestWeight) {
+                best = moveAt(i);
+                bestWeight = weightAt(i);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks a move in the position with the given key at random, each in proportion to its weight,
+     * so a computer player does not always open the same way
+     *
+     * @param random any value, for instance from {@link java.util.random.RandomGenerator#nextLong()}
+     * @return the move, or {@link Move#NONE} if the position is not in the book
+     */
+    public int pickMove(long key, long random) {
+        int first = firstIndex(key);
+        long total = 0;
+        int end = first;
+        for (; end < size && keyAt(end) == key; end++) {
+            total += weightAt(end);
+        }
+        if (total == 0) {
+            return end > first ? moveAt(first) : Move.NONE;
+        }
+        long target = Math.floorMod(random, total);
+        for (int i = first; i < end; i++) {
+            target -= weightAt(i);
+            if (target < 0) {
+                return moveAt(i);
+            }
+        }
+        return moveAt(end - 1);
+    }
+
+    /**
+     * @param scratch a list to generate the legal moves into; it is cleared first, and reusing one
+     *                keeps the lookup allocation-free
+     * @return a book move for the side to move in game, checked to be legal, or {@link Move#NONE}
+     */
+    public int move(ChessGame game, long random, MoveList scratch) {
+        int move = pickMove(game.getZobristKey(), random);
+        if (move == Move.NONE) {
+            return Move.NONE;
+        }
+        // a Zobrist key can, very rarely, belong to another position too
+        scratch.clear();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), scratch);
+        return scratch.indexOf(move) >= 0 ? move : Move.NONE;
+    }
+
+    // index of the first entry with a key at least key
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    private int moveAt(int index) {
+        return entries.getShort(HEADER_BYTES + index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int index) {
+        return entries.getShort(HEADER_BYTES + index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+}
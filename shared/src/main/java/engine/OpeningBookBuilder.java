@@ -0,0 +1,131 @@
+package engine;
+
+import chess.ChessGame;
+import chess.GameRecord;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link OpeningBook} file from real games.
+ * <p>
+ * A game with its move history ({@link chess.GameRecord}) credits its first moves directly, one
+ * weight per game for each (position, move) it played. Games stored before histories were kept
+ * have only their current position, so for those the builder finds the moves itself: it walks
+ * every line from a root position (normally the initial one) a few plies deep, and each time a
+ * line arrives at a reached position, every move along the line gains one weight per game that
+ * reached it. Such positions further from the root than that add nothing.
+ */
+public final class OpeningBookBuilder {
+
+    public static final int DEFAULT_DEPTH = 4;
+    public static final int DEFAULT_PLIES = 16;
+
+    private final Map<Long, Integer> reached = new HashMap<>();
+    private final Map<Entry, Integer> weights = new HashMap<>();
+
+    private record Entry(long key, int move) {
+    }
+
+    /**
+     * Credits the first maxPlies moves of game's history, or counts its position with
+     * {@link #addPosition} if it has no history
+     */
+    public void addGame(ChessGame game, int maxPlies) {
+        int plies = game.getPlyCount();
+        if (plies == 0) {
+            addPosition(game);
+            return;
+        }
+        ChessGame replay = GameRecord.start(game);
+        for (int ply = 0; ply < Math.min(plies, maxPlies); ply++) {
+            int move = Move.encode(game.moveAt(ply), replay.getBoard());
+            weights.merge(new Entry(replay.getZobristKey(), move), 1, Integer::sum);
+            replay.pushMove(move);
+        }
+    }
+
+    /**
+     * Counts one more game in game's position
+     */
+    public void addPosition(ChessGame game) {
+        reached.merge(game.getZobristKey(), 1, Integer::sum);
+    }
+
+    /**
+     * Credits the moves of every line from root, up to depth plies long, that ends in a position
+     * passed to {@link #addPosition}
+     */
+    public void walk(ChessGame root, int depth) {
+        ChessGame game = new ChessGame(root);
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        walk(game, depth, 0, new long[depth], new int[depth], lists);
+    }
+
+    private void walk(ChessGame game, int depth, int ply, long[] keys, int[] moves, MoveList[] lists) {
+        Integer games = reached.get(game.getZobristKey());
+        if (games != null) {
+            for (int i = 0; i < ply; i++) {
+                weights.merge(new Entry(keys[i], moves[i]), games, Integer::sum);
+            }
+        }
+        if (ply == depth) {
+            return;
+        }
+        MoveList legal = lists[ply];
+        legal.clear();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), legal);
+        keys[ply] = game.getZobristKey();
+        for (int i = 0; i < legal.size(); i++) {
+            moves[ply] = legal.get(i);
+            game.pushMove(moves[ply]);
+            walk(game, depth, ply + 1, keys, moves, lists);
+            game.popMove();
+        }
+    }
+
+    /**
+     * @return the number of (position, move) entries the book will have
+     */
+    public int size() {
+        return weights.size();
+    }
+
+    /**
+     * Writes the book to path, replacing any file there
+     */
+    public void write(Path path) throws IOException {
+        List<Map.Entry<Entry, Integer>> sorted = new ArrayList<>(weights.entrySet());
+        sorted.sort((a, b) -> a.getKey().key() != b.getKey().key()
+                ? Long.compare(a.getKey().key(), b.getKey().key())
+                : Integer.compare(a.getKey().move(), b.getKey().move()));
+
+        ByteBuffer out = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + sorted.size() * OpeningBook.ENTRY_BYTES);
+        out.putInt(OpeningBook.MAGIC).putInt(sorted.size());
+        for (Map.Entry<Entry, Integer> entry : sorted) {
+            out.putLong(entry.getKey().key())
+                    .putShort((short) entry.getKey().move())
+                    .putShort((short) Math.min(entry.getValue(), 0xFFFF));
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP: several threads search the same root at once, sharing one {@link TranspositionTable}.
+ * <p>
+ * The calling thread runs an ordinary {@link Search}; every helper thread runs its own on its own
+ * copy of the game, half of them one ply deeper than the main thread at every iteration. The
+ * helpers never report anything themselves. They fill the table with results the main thread then
+ * finds instead of searching, which is where the speedup comes from. When the main thread
+ * finishes, the helpers are stopped and its move is the answer.
+ * <p>
+ * The helper threads are started once and reused by every search; {@link #close()} stops them.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    /**
+     * Outcome of a {@link ParallelSearch}
+     *
+     * @param result    the main thread's result, which is the one to play
+     * @param perThread every thread's own result, the main thread's first
+     * @param nanos     wall-clock time taken
+     */
+    public record Result(SearchResult result, List<SearchResult> perThread, long nanos) {
+
+        public int threads() {
+            return perThread.size();
+        }
+
+        /**
+         * @return positions visited by all threads together
+         */
+        public long nodes() {
+            long nodes = 0;
+            for (SearchResult thread : perThread) {
+                nodes += thread.nodes();
+            }
+            return nodes;
+        }
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes() * 1_000_000_000L / nanos;
+        }
+
+        /**
+         * @param single a one-thread search of the same position to the same depth
+         * @return how many times faster this search reached its depth
+         */
+        public double speedupOver(SearchResult single) {
+            return nanos == 0 ? 0 : (double) single.nanos() / nanos;
+        }
+    }
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final ExecutorService helperPool;
+
+    public ParallelSearch(int threads) {
+        this(threads, TranspositionTable.shared());
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.threads = threads;
+        this.table = table;
+        // daemon threads, so a search nobody closed never keeps the JVM alive; numbered from 1,
+        // as the main thread is helper 0
+        AtomicInteger helperIndex = new AtomicInteger(1);
+        this.helperPool = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper-" + helperIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Finds the best move for the side to move in game, within limits, on {@link #getThreads()}
+     * threads. The limits apply to each thread; game itself is never touched.
+     */
+    public Result search(ChessGame game, SearchLimits limits) {
+        long start = System.nanoTime();
+        table.newSearch();
+        List<Search> helpers = new ArrayList<>(threads - 1);
+        List<Future<SearchResult>> helperResults = new ArrayList<>(threads - 1);
+        SearchResult main;
+        try {
+            for (int i = 1; i < threads; i++) {
+                Search helper = new Search(table);
+                int depthOffset = i % 2;
+                helpers.add(helper);
+                helperResults.add(helperPool.submit(() -> helper.run(game, limits, depthOffset)));
+            }
+            main = new Search(table).run(game, limits, 0);
+        } finally {
+            helpers.forEach(Search::stop);
+        }
+
+        List<SearchResult> perThread = new ArrayList<>(threads);
+        perThread.add(main);
+        for (Future<SearchResult> helperResult : helperResults) {
+            try {
+                perThread.add(helperResult.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for search threads", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A search thread failed", e.getCause());
+            }
+        }
+        return new Result(main, perThread, System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the helper threads; the search cannot be used afterwards
+     */
+    @Override
+    public void close() {
+        if (helperPool != null) {
+            helperPool.shutdown();
+        }
+    }
+
+    /**
+     * Searches a few positions to a fixed depth on 1 to the given number of threads (default: every
+     * core), each time with an empty table, and prints nodes per second and the speedup in time
+     * to depth over one thread.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        TranspositionTable table = new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES * 1024L * 1024L);
+        String[] positions = {
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+        };
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            SearchResult single = null;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                table.clear();
+                Result result;
+                try (ParallelSearch search = new ParallelSearch(threads, table)) {
+                    result = search.search(game, SearchLimits.depth(depth));
+                }
+                if (single == null) {
+                    single = result.result();
+                }
+                System.out.printf("%-62s %2d threads: depth %d, %,12d nodes %,12d nps, speedup %.2f%n", fen, threads,
+                        result.result().depth(), result.nodes(), result.nodesPerSecond(), result.speedupOver(single));
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+/**
+ * Alpha-beta game tree search for a computer player.
+ * <p>
+ * Negamax with alpha-beta pruning, run by iterative deepening (depth 1, 2, 3, ... until the
+ * {@link SearchLimits} run out) so there is always a finished answer to fall back on. Leaves are
+ * settled by a quiescence search over captures and promotions, so the static evaluation
+ * ({@link chess.ChessBoard#evaluate(ChessGame.TeamColor)}) is only trusted in quiet positions.
+ * Repetitions (of positions inside the tree or from the game's moves before the search) and
+ * fifty-move positions score as draws.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, by default the {@link TranspositionTable#shared()
+ * shared} one, so a position reached again (by transposition, in a later iteration, or in another
+ * game's search) is settled from the table or at least searched best move first.
+ * <p>
+ * A Search keeps per-search scratch state, so each thread needs its own; {@link #stop()} may be
+ * called from any thread.
+ */
+public class Search {
+
+    public static final int MATE = 100_000;
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = 1_000_000;
+    private static final int DRAW = 0;
+    // how often (in nodes) to look at the clock
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final MoveList[] lists = new MoveList[MAX_PLY + 1];
+    private final TranspositionTable table;
+    private final MoveOrdering ordering = new MoveOrdering();
+
+    private ChessGame game;
+    private SearchLimits limits;
+    private long deadline;
+    private long nodes;
+    private volatile boolean stopped;
+
+    public Search() {
+        this(TranspositionTable.shared());
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Finds the best move for the side to move in game, within limits. Searches a copy, so game
+     * itself is never touched.
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        stopped = false;
+        table.newSearch();
+        return run(game, limits, 0);
+    }
+
+    /**
+     * Runs the iterative deepening loop with every iteration depthOffset plies deeper than usual,
+     * so {@link ParallelSearch} helpers fall out of step with the main thread. Leaves the table's
+     * generation and an earlier {@link #stop()} alone.
+     */
+    SearchResult run(ChessGame game, SearchLimits limits, int depthOffset) {
+        long start = System.nanoTime();
+        this.game = game.copyWithHistory();
+        this.limits = limits;
+        this.deadline = limits.maxMillis() > Long.MAX_VALUE / 2_000_000 ? Long.MAX_VALUE : start + limits.maxMillis() * 1_000_000;
+        this.nodes = 0;
+        ordering.clear();
+
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(this.game.getBoard(), this.game.getTeamTurn(), legal);
+        if (legal.isEmpty()) {
+            int score = this.game.isInCheck(this.game.getTeamTurn()) ? -MATE : DRAW;
+            return new SearchResult(Move.NONE, score, 0, 0, System.nanoTime() - start, 0, 0);
+        }
+        int tableMove = TranspositionTable.move(table.probe(this.game.getZobristKey()));
+        int tableIndex = tableMove == Move.NONE ? -1 : legal.indexOf(tableMove);
+        if (tableIndex > 0) {
+            legal.swap(0, tableIndex);
+        }
+        int[] rootMoves = new int[legal.size()];
+        for (int i = 0; i < rootMoves.length; i++) {
+            rootMoves[i] = legal.get(i);
+        }
+
+        // until an iteration finishes, the first move and the static evaluation stand in
+        int bestMove = rootMoves[0];
+        int bestScore = this.game.getBoard().evaluate(this.game.getTeamTurn());
+        int completed = 0;
+        for (int depth = Math.min(1 + depthOffset, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            int[] best = searchRoot(rootMoves, depth);
+            // an interrupted iteration has not looked at every root move, so its answer is not trusted
+            if (stopped) {
+                break;
+            }
+            bestMove = rootMoves[best[0]];
+            bestScore = best[1];
+            completed = depth;
+            // only a finished iteration's score is exact; other threads and later searches trust it
+            table.store(this.game.getZobristKey(), bestMove, bestScore, depth, TranspositionTable.EXACT, 0);
+            // try this iteration's best move first in the next one
+            System.arraycopy(rootMoves, 0, rootMoves, 1, best[0]);
+            rootMoves[0] = bestMove;
+            if (Math.abs(bestScore) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completed, nodes, System.nanoTime() - start,
+                ordering.getCutoffs(), ordering.getFirstMoveCutoffs());
+    }
+
+    /**
+     * Asks a running search to finish; it answers with its deepest finished iteration
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return {index of the best root move, its score}
+     */
+    private int[] searchRoot(int[] rootMoves, int depth) {
+        int bestIndex = 0;
+        int alpha = -INFINITY;
+        for (int i = 0; i < rootMoves.length; i++) {
+            game.pushMove(rootMoves[i]);
+            int score = -negamax(depth - 1, -INFINITY, -alpha, 1);
+            game.popMove();
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestIndex = i;
+            }
+        }
+        return new int[]{bestIndex, alpha};
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        if (game.getHalfmoveClock() >= 100 || game.repetitionCount() >= 2) {
+            return DRAW;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(alpha, beta, ply);
+        }
+
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int tableMove = Move.NONE;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = lists[ply];
+        moves.clear();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : DRAW;
+        }
+        ordering.score(moves, game.getBoard(), game.getTeamTurn(), ply, tableMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.pickNext(i);
+            game.pushMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.popMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (alpha >= beta) {
+                        ordering.cutoff(move, i, game.getTeamTurn(), ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions only (every evasion when in check) until the position is
+     * quiet, letting the side to move "stand pat" on the static evaluation instead
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        MoveList moves = lists[ply];
+        moves.clear();
+        MoveGenerator.generateLegal(game.getBoard(), turn, moves);
+        boolean inCheck = game.isInCheck(turn);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+        int standPat = game.getBoard().evaluate(turn);
+        if (ply >= MAX_PLY) {
+            return standPat;
+        }
+
+        int best = -INFINITY;
+        if (!inCheck) {
+            if (standPat >= beta) {
+                return standPat;
+            }
+            best = standPat;
+            alpha = Math.max(alpha, standPat);
+        }
+        ordering.scoreCaptures(moves, game.getBoard());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.pickNext(i);
+            if (!inCheck && !Move.isCapture(move) && Move.promotion(move) == null) {
+                continue;
+            }
+            game.pushMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.popMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the budget
+     *
+     * @return true if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= limits.maxNodes()) {
+            stopped = true;
+        } else if (nodes % CHECK_INTERVAL == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+}
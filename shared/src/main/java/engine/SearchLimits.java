@@ -0,0 +1,33 @@
+package engine;
+
+/**
+ * How much a {@link Search} may spend on one move: a depth, a wall-clock time and a node count.
+ * The search stops at whichever runs out first and answers with the deepest finished iteration.
+ *
+ * @param maxDepth  deepest iteration to search, in plies
+ * @param maxMillis time budget in milliseconds
+ * @param maxNodes  budget of positions visited, quiescence included
+ */
+public record SearchLimits(int maxDepth, long maxMillis, long maxNodes) {
+
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxMillis < 1 || maxNodes < 1) {
+            throw new IllegalArgumentException("Search limits must be positive");
+        }
+        maxDepth = Math.min(maxDepth, MAX_DEPTH);
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits time(long maxMillis) {
+        return new SearchLimits(MAX_DEPTH, maxMillis, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, maxNodes);
+    }
+}
@@ -0,0 +1,47 @@
+package engine;
+
+import chess.ChessMove;
+import chess.Move;
+
+/**
+ * Outcome of a {@link Search}
+ *
+ * @param bestMove         the {@link Move}-encoded move to play, or {@link Move#NONE} if the side to
+ *                         move has no legal moves
+ * @param score            centipawns from the side to move's point of view; mates are scored
+ *                         {@link Search#MATE} minus the plies to mate
+ * @param depth            deepest iteration that finished
+ * @param nodes            positions visited, quiescence included
+ * @param nanos            time taken
+ * @param cutoffs          beta cutoffs in the main search (not quiescence)
+ * @param firstMoveCutoffs how many of those came from the first move tried
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long nanos,
+                           long cutoffs, long firstMoveCutoffs) {
+
+    /**
+     * @return the best move, or null if there is none
+     */
+    public ChessMove getBestMove() {
+        return bestMove == Move.NONE ? null : Move.toChessMove(bestMove);
+    }
+
+    /**
+     * @return true if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    /**
+     * @return the share of cutoffs made by the first move tried, between 0 and 1; the closer to
+     * 1, the better the move ordering
+     */
+    public double firstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+}
@@ -0,0 +1,176 @@
+package engine;
+
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of search results keyed by {@link chess.ChessGame#getZobristKey() Zobrist key},
+ * shared by every search thread without locking.
+ * <p>
+ * Each entry is two longs in one {@code long[]}: the key XOR the data, then the data. A reader
+ * only trusts an entry when the two XOR back to its key, so an entry torn by two threads writing
+ * at once reads as a miss rather than as someone else's result. Data is packed as
+ * <ul>
+ *     <li>bits 0-15: best move ({@link Move} encoding, {@link Move#NONE} if unknown)</li>
+ *     <li>bits 16-47: score</li>
+ *     <li>bits 48-55: depth searched</li>
+ *     <li>bits 56-57: bound ({@link #EXACT}, {@link #LOWER} or {@link #UPPER})</li>
+ *     <li>bits 58-63: generation of the search that stored it</li>
+ * </ul>
+ * A slot keeps the deeper of its old and new results, unless the old one is from an earlier
+ * search or is for the same position.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    // score is at least the stored one (the search failed high)
+    public static final int LOWER = 2;
+    // score is at most the stored one (the search failed low)
+    public static final int UPPER = 3;
+
+    /**
+     * Size of {@link #shared()} in megabytes, unless the {@value} system property says otherwise
+     */
+    public static final String SIZE_PROPERTY = "chess.hash.mb";
+    public static final int DEFAULT_MEGABYTES = 64;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int GENERATIONS = 64;
+
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    private static final class Shared {
+        static final TranspositionTable TABLE =
+                new TranspositionTable(Integer.getInteger(SIZE_PROPERTY, DEFAULT_MEGABYTES) * 1024L * 1024L);
+    }
+
+    /**
+     * @param maxBytes memory cap; the table takes the largest power-of-two number of entries that fits
+     */
+    public TranspositionTable(long maxBytes) {
+        if (maxBytes < ENTRY_BYTES) {
+            throw new IllegalArgumentException("A transposition table needs at least " + ENTRY_BYTES + " bytes");
+        }
+        // two longs per entry, and a Java array holds at most 2^30 of them in practice
+        long slots = Long.highestOneBit(Math.min(maxBytes / ENTRY_BYTES, 1L << 29));
+        entries = new long[(int) slots * 2];
+        mask = (int) slots - 1;
+    }
+
+    /**
+     * @return the table every {@link Search} uses unless given its own
+     */
+    public static TranspositionTable shared() {
+        return Shared.TABLE;
+    }
+
+    /**
+     * @return the stored data for key, or 0 if there is none
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : 0;
+    }
+
+    /**
+     * @param score from the side to move's point of view at ply; mate scores are stored
+     *              relative to this position so they stay right wherever it is reached
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = index(key);
+        long old = entries[index + 1];
+        boolean samePosition = (entries[index] ^ old) == key;
+        if (old != 0 && !samePosition && generation(old) == generation && depth(old) > depth) {
+            return;
+        }
+        if (samePosition && move == Move.NONE) {
+            move = move(old);
+        }
+        long data = (move & 0xFFFFL)
+                | (toStored(score, ply) & 0xFFFFFFFFL) << 16
+                | (long) Math.min(depth, 255) << 48
+                | (long) bound << 56
+                | (long) generation << 58;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * Starts a new search, so entries from earlier ones give way to it whatever their depth
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return how full the table is in permille, from a sample of the first thousand slots
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = entries[i * 2 + 1];
+            if (data != 0 && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * @return the stored score, as seen from the position being probed at ply
+     */
+    public static int score(long data, int ply) {
+        int score = (int) (data >>> 16);
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 56) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 58);
+    }
+
+    // mate scores count plies from the root; stored, they count from this position
+    private static int toStored(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ key >>> 32) & mask) * 2;
+    }
+}
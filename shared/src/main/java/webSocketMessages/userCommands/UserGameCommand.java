@@ -1,5 +1,7 @@
 package webSocketMessages.userCommands;
 
+import chess.ChessMove;
+
 import java.util.Objects;
 
 /**
@@ -17,6 +19,11 @@ public class UserGameCommand {
         this.gameID = gameID;
     }
 
+    public UserGameCommand(CommandType command, String authToken, String username, int gameID, ChessMove move) {
+        this(command, authToken, username, gameID);
+        this.move = move;
+    }
+
     public enum CommandType {
         JOIN_PLAYER,
         JOIN_OBSERVER,
@@ -35,6 +42,9 @@ public class UserGameCommand {
 
     private final int gameID;
 
+    // the move of a MAKE_MOVE command
+    private ChessMove move;
+
     public String getAuthString() {
         return authToken;
     }
@@ -51,6 +61,10 @@ public class UserGameCommand {
         return this.gameID;
     }
 
+    public ChessMove getMove(){
+        return this.move;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -0,0 +1,67 @@
+package chessTests;
+
+import chess.Attacks;
+import chess.Bitboard;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttacksTests {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    @Test
+    void magicLookupsMatchRayWalking() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 200; trial++) {
+            // sparse, medium and dense boards
+            long occupied = random.nextLong();
+            if (trial % 3 == 0) {
+                occupied &= random.nextLong() & random.nextLong();
+            } else if (trial % 3 == 1) {
+                occupied &= random.nextLong();
+            }
+            for (int square = 0; square < 64; square++) {
+                long rook = walk(square, occupied, ROOK_DIRECTIONS);
+                long bishop = walk(square, occupied, BISHOP_DIRECTIONS);
+                assertEquals(rook, Attacks.rook(square, occupied), "rook on " + square);
+                assertEquals(bishop, Attacks.bishop(square, occupied), "bishop on " + square);
+                assertEquals(rook | bishop, Attacks.queen(square, occupied), "queen on " + square);
+            }
+        }
+    }
+
+    @Test
+    void emptyAndFullBoards() {
+        for (int square = 0; square < 64; square++) {
+            assertEquals(walk(square, 0L, ROOK_DIRECTIONS), Attacks.rook(square, 0L));
+            assertEquals(walk(square, 0L, BISHOP_DIRECTIONS), Attacks.bishop(square, 0L));
+            assertEquals(walk(square, -1L, ROOK_DIRECTIONS), Attacks.rook(square, -1L));
+            assertEquals(walk(square, -1L, BISHOP_DIRECTIONS), Attacks.bishop(square, -1L));
+        }
+        assertEquals(14, Long.bitCount(Attacks.rook(Bitboard.square(4, 4), 0L)));
+        assertEquals(13, Long.bitCount(Attacks.bishop(Bitboard.square(4, 4), 0L)));
+    }
+
+    // steps one square at a time in each direction until leaving the board or hitting a piece
+    private static long walk(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = Bitboard.row(square) + direction[0];
+            int col = Bitboard.column(square) + direction[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = Bitboard.bit(Bitboard.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,153 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitboardTests {
+
+    @Test
+    void startingBoardBitboards() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupied());
+        assertEquals(0xFFFFL, board.getTeamBitboard(ChessGame.TeamColor.WHITE));
+        assertEquals(Bitboard.ROW_7, board.getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        assertEquals(Bitboard.bit(Bitboard.square(1, 5)),
+                board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    void addAndRemoveKeepBitboardsInSync() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPosition e4 = new ChessPosition(4, 5);
+        board.addPiece(e4, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(e4, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        long e4Bit = Bitboard.bit(Bitboard.square(4, 5));
+        assertEquals(0L, board.getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT) & e4Bit);
+        assertNotEquals(0L, board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN) & e4Bit);
+
+        board.removePiece(e4);
+        assertEquals(0L, board.getOccupied() & e4Bit);
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupied());
+    }
+
+    @Test
+    void gsonRoundTripRebuildsBitboards() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        board.removePiece(new ChessPosition(2, 5));
+        board.addPiece(new ChessPosition(4, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+
+        assertEquals(board, copy);
+        assertEquals(board.getOccupied(), copy.getOccupied());
+        assertEquals(board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                copy.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    }
+
+    @Test
+    void zobristKeyTracksMovesAndUndo() {
+        Random random = new Random(240);
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        game.setBoard(board);
+        long startKey = game.getZobristKey();
+        MoveList moves = new MoveList();
+        int played = 0;
+        for (; played < 40; played++) {
+            moves.clear();
+            MoveGenerator.generateLegal(board, game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.pushMove(moves.get(random.nextInt(moves.size())));
+            ChessBoard rebuilt = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+            assertEquals(rebuilt.getZobristKey(), board.getZobristKey(), "after move " + played);
+        }
+        for (int i = 0; i < played; i++) {
+            game.popMove();
+        }
+        assertEquals(startKey, game.getZobristKey());
+
+        game.pushMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        assertNotEquals(startKey, game.getZobristKey());
+        assertEquals(board.getZobristKey() ^ Zobrist.BLACK_TO_MOVE, game.getZobristKey());
+        game.pushMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.pushMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.pushMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        assertEquals(startKey, game.getZobristKey());
+    }
+
+    @Test
+    void evaluationTracksMovesAndUndo() {
+        Random random = new Random(240);
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        ChessBoard board = game.getBoard();
+        assertEquals(0, board.evaluate());
+        assertEquals(4000, board.getMaterial(ChessGame.TeamColor.WHITE));
+        assertEquals(board.getSquareBonus(ChessGame.TeamColor.WHITE), board.getSquareBonus(ChessGame.TeamColor.BLACK));
+
+        MoveList moves = new MoveList();
+        int played = 0;
+        for (; played < 80; played++) {
+            moves.clear();
+            MoveGenerator.generateLegal(board, game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.pushMove(moves.get(random.nextInt(moves.size())));
+            ChessBoard rebuilt = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+            assertEquals(rebuilt.evaluate(), board.evaluate(), "after move " + played);
+            assertEquals(rebuilt.getMaterial(ChessGame.TeamColor.BLACK), board.getMaterial(ChessGame.TeamColor.BLACK));
+            assertEquals(-board.evaluate(), board.evaluate(ChessGame.TeamColor.BLACK));
+        }
+        for (int i = 0; i < played; i++) {
+            game.popMove();
+        }
+        assertEquals(0, board.evaluate());
+    }
+
+    @Test
+    void attackedSquaresStopAtBlockers() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long whiteAttacks = board.getAttackedSquares(ChessGame.TeamColor.WHITE);
+        // Nothing gets past the pawns in the starting position
+        assertEquals(0L, whiteAttacks & ~(Bitboard.ROW_1 | Bitboard.ROW_2 | Bitboard.ROW_1 << 16));
+        assertEquals(Bitboard.ROW_1 << 16, whiteAttacks & (Bitboard.ROW_1 << 16));
+    }
+
+    @Test
+    void reverseAttackQueryMatchesAttackMap() {
+        Random random = new Random(240);
+        ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+        for (int trial = 0; trial < 50; trial++) {
+            ChessBoard board = new ChessBoard();
+            for (int i = 0; i < 20; i++) {
+                ChessPosition position = new ChessPosition(random.nextInt(8) + 1, random.nextInt(8) + 1);
+                if (random.nextBoolean()) {
+                    board.removePiece(position);
+                } else {
+                    ChessGame.TeamColor color = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                    board.addPiece(position, new ChessPiece(color, types[random.nextInt(types.length)]));
+                }
+            }
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                long attacked = board.getAttackedSquares(color);
+                for (int square = 0; square < 64; square++) {
+                    assertEquals((attacked & Bitboard.bit(square)) != 0, board.isSquareAttacked(square, color),
+                            "square " + square + " attacked by " + color);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardCodecTests {
+
+    @Test
+    void roundTripsPlayedPositions() {
+        Random random = new Random(240);
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.SIZE * 61);
+        MoveList moves = new MoveList();
+        int[] played = new int[60];
+        int written = 0;
+        for (int ply = 0; ply < 60; ply++) {
+            BoardCodec.write(game, buffer);
+            written++;
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            played[ply] = moves.get(random.nextInt(moves.size()));
+            game.pushMove(played[ply]);
+        }
+        assertEquals(written * BoardCodec.SIZE, buffer.position());
+
+        buffer.flip();
+        ChessGame replay = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        for (int i = 0; i < written; i++) {
+            assertEquals(replay, BoardCodec.read(buffer), "ply " + i);
+            if (i + 1 < written) {
+                replay.pushMove(played[i]);
+            }
+        }
+    }
+
+    @Test
+    void encodingIsFarSmallerThanJson() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        byte[] bytes = BoardCodec.encode(game);
+        assertEquals(BoardCodec.SIZE, bytes.length);
+        assertEquals(game, BoardCodec.decode(bytes));
+        assertTrue(new Gson().toJson(game).length() > 20 * bytes.length);
+    }
+
+    @Test
+    void rejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[BoardCodec.SIZE - 1]));
+        byte[] bytes = new byte[BoardCodec.SIZE];
+        bytes[5] = (byte) 0xD0;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(bytes));
+    }
+}
@@ -0,0 +1,41 @@
+package chessTests;
+
+import chess.Bitboard;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessPositionTests {
+
+    @Test
+    void onePositionPerSquare() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition shared = ChessPosition.of(row, col);
+                assertSame(shared, ChessPosition.of(row, col));
+                assertSame(shared, ChessPosition.of(Bitboard.square(row, col)));
+                assertEquals(row, shared.getRow());
+                assertEquals(col, shared.getColumn());
+            }
+        }
+    }
+
+    @Test
+    void sharedAndNewPositionsAreEqual() {
+        ChessPosition shared = ChessPosition.of(4, 5);
+        ChessPosition created = new ChessPosition(4, 5);
+        assertNotSame(shared, created);
+        assertEquals(created, shared);
+        assertEquals(shared, created);
+        assertEquals(created.hashCode(), shared.hashCode());
+        assertNotEquals(ChessPosition.of(5, 4), shared);
+    }
+
+    @Test
+    void offBoardPositionsAreNotShared() {
+        ChessPosition offBoard = ChessPosition.of(0, 9);
+        assertEquals(new ChessPosition(0, 9), offBoard);
+        assertNotSame(offBoard, ChessPosition.of(0, 9));
+    }
+}
@@ -0,0 +1,58 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    void startPositionMatchesResetBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessGame game = ChessGame.fromFen(START);
+        assertEquals(board, game.getBoard());
+        assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        assertEquals(START, game.toFen());
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", board.toFen());
+    }
+
+    @Test
+    void roundTripsPlayedPositions() {
+        Random random = new Random(240);
+        ChessGame game = ChessGame.fromFen(START);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 60; ply++) {
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.pushMove(moves.get(random.nextInt(moves.size())));
+            ChessGame copy = ChessGame.fromFen(game.toFen());
+            assertEquals(game, copy, game.toFen());
+            assertEquals(game.getZobristKey(), copy.getZobristKey());
+        }
+    }
+
+    @Test
+    void ignoresCastlingAndEnPassantFields() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 2");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1", game.toFen());
+    }
+
+    @Test
+    void rejectsMalformedFen() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("ppppppppp/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7x w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x - - 0 1"));
+    }
+}
@@ -0,0 +1,88 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    void keepsTheMoveHistory() {
+        ChessGame game = playRandomly(40);
+
+        byte[] bytes = GameRecord.encode(game);
+        assertEquals(GameRecord.size(game.getPlyCount()), bytes.length);
+        ChessGame read = GameRecord.decode(bytes);
+        assertEquals(game, read);
+        assertEquals(game.getZobristKey(), read.getZobristKey());
+        assertEquals(40, read.getPlyCount());
+        for (int ply = 0; ply < game.getPlyCount(); ply++) {
+            assertEquals(game.moveAt(ply), read.moveAt(ply), "ply " + ply);
+        }
+        assertEquals(ChessGame.fromFen(START), GameRecord.start(read));
+    }
+
+    @Test
+    void growsByAppendingMoves() {
+        ChessGame game = playRandomly(30);
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        stored.writeBytes(GameRecord.encode(GameRecord.start(game)));
+        for (int ply = 0; ply < game.getPlyCount(); ply++) {
+            assertEquals(GameRecord.size(ply), stored.size());
+            stored.writeBytes(GameRecord.encodeMove(game, ply));
+        }
+        assertArrayEquals(GameRecord.encode(game), stored.toByteArray());
+    }
+
+    @Test
+    void repetitionsSurviveAReload() {
+        ChessGame game = ChessGame.fromFen(START);
+        // knights out and back twice: the start position for the third time
+        int[] shuffle = {6, 21, 62, 45, 21, 6, 45, 62};
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < shuffle.length; j += 2) {
+                game.pushMove(Move.encode(shuffle[j], shuffle[j + 1], null, false));
+            }
+        }
+        assertTrue(game.isThreefoldRepetition());
+        assertTrue(GameRecord.decode(GameRecord.encode(game)).isThreefoldRepetition());
+        assertFalse(BoardCodec.decode(BoardCodec.encode(game)).isThreefoldRepetition());
+    }
+
+    @Test
+    void rejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.decode(BoardCodec.encode(ChessGame.fromFen(START))));
+        byte[] bytes = GameRecord.encode(ChessGame.fromFen(START));
+        byte[] halfAMove = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, halfAMove, 0, bytes.length);
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.decode(halfAMove));
+        // a black piece moving first
+        byte[] wrongSide = new byte[bytes.length + 2];
+        System.arraycopy(bytes, 0, wrongSide, 0, bytes.length);
+        int move = Move.encode(52, 36, null, false);
+        wrongSide[bytes.length] = (byte) (move >> 8);
+        wrongSide[bytes.length + 1] = (byte) move;
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.decode(wrongSide));
+    }
+
+    private static ChessGame playRandomly(int plies) {
+        Random random = new Random(plies);
+        ChessGame game = ChessGame.fromFen(START);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < plies; ply++) {
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.pushMove(moves.get(random.nextInt(moves.size())));
+        }
+        return game;
+    }
+}
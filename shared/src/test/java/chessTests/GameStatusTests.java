@@ -0,0 +1,38 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStatusTests {
+
+    @Test
+    void reportsEachStatus() {
+        assertEquals(ChessGame.GameStatus.ONGOING,
+                ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1").status());
+        assertEquals(ChessGame.GameStatus.CHECK, ChessGame.fromFen("4k3/8/8/8/8/8/8/4RK2 b - - 0 1").status());
+        assertEquals(ChessGame.GameStatus.CHECKMATE, ChessGame.fromFen("k6R/8/1K6/8/8/8/8/8 b - - 0 1").status());
+        assertEquals(ChessGame.GameStatus.STALEMATE, ChessGame.fromFen("k7/8/1Q6/8/8/8/8/7K b - - 0 1").status());
+    }
+
+    @Test
+    void blockingPieceMeansNoMate() {
+        // back-rank check the king cannot escape, but the bishop can interpose on f8
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/1b6/8/8/R5K1 b - - 0 1");
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.pushMove(Move.encode(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), game.getBoard()));
+        assertEquals(ChessGame.GameStatus.CHECK, game.status());
+        assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void followsThePositionAsItChanges() {
+        ChessGame game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/6R1 w - - 0 1");
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+        game.pushMove(Move.encode(new ChessMove(new ChessPosition(1, 7), new ChessPosition(8, 7), null), game.getBoard()));
+        assertEquals(ChessGame.GameStatus.CHECKMATE, game.status());
+        game.popMove();
+        assertEquals(ChessGame.GameStatus.ONGOING, game.status());
+    }
+}
@@ -0,0 +1,69 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveCacheTests {
+
+    @Test
+    void countsHitsAndMisses() {
+        MoveCache cache = new MoveCache(8);
+        int[] computed = {0};
+        Set<ChessMove> moves = Set.of(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(moves, cache.get(42L, 12, () -> {
+                computed[0]++;
+                return moves;
+            }));
+        }
+        assertEquals(1, computed[0]);
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+
+        HashSet<ChessMove> copy = cache.get(42L, 12, () -> moves);
+        copy.clear();
+        assertEquals(moves, cache.get(42L, 12, () -> moves));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        MoveCache cache = new MoveCache(2);
+        cache.get(1L, 0, Set::of);
+        cache.get(2L, 0, Set::of);
+        cache.get(1L, 0, Set::of);
+        cache.get(3L, 0, Set::of);
+        assertEquals(2, cache.size());
+        long misses = cache.getMisses();
+        cache.get(1L, 0, Set::of);
+        assertEquals(misses, cache.getMisses());
+        cache.get(2L, 0, Set::of);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void validMovesMissesOnlyForNewPositions() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/1N2K3 w - - 7 1");
+        ChessPosition knight = new ChessPosition(1, 2);
+        // a cache of its own, so other tests' games cannot change the counts
+        MoveCache cache = new MoveCache(16);
+        game.setMoveCache(cache);
+        long sharedLookups = ChessGame.getMoveCache().getHits() + ChessGame.getMoveCache().getMisses();
+        HashSet<ChessMove> first = game.validMoves(knight);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        assertEquals(first, game.validMoves(knight));
+        assertEquals(1, cache.getHits());
+
+        game.makeMove(new ChessMove(knight, new ChessPosition(3, 3), null));
+        assertEquals(2, cache.getHits());
+        assertEquals(5, game.validMoves(new ChessPosition(8, 5)).size());
+        assertEquals(2, cache.getMisses());
+        assertEquals(sharedLookups, ChessGame.getMoveCache().getHits() + ChessGame.getMoveCache().getMisses());
+    }
+}
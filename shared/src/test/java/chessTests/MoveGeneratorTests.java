@@ -0,0 +1,80 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTests {
+
+    @Test
+    void legalMovesMatchTryingEveryMove() {
+        Random random = new Random(240);
+        ChessPiece.PieceType[] types = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.PAWN};
+        for (int trial = 0; trial < 500; trial++) {
+            ChessGame game = new ChessGame();
+            ChessBoard board = new ChessBoard();
+            board.addPiece(randomSquare(random, 1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+            board.addPiece(randomSquare(random, 1, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+            for (int i = 0; i < 12; i++) {
+                ChessPiece.PieceType type = types[random.nextInt(types.length)];
+                ChessPosition position = type == ChessPiece.PieceType.PAWN ? randomSquare(random, 2, 7) : randomSquare(random, 1, 8);
+                ChessPiece existing = board.getPiece(position);
+                if (existing == null || existing.getPieceType() != ChessPiece.PieceType.KING) {
+                    ChessGame.TeamColor color = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                    board.addPiece(position, new ChessPiece(color, type));
+                }
+            }
+            game.setBoard(board);
+
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                HashSet<ChessMove> legal = tryEveryMove(game, board, color);
+                assertEquals(legal, game.legalMoves(color), "trial " + trial + " " + color);
+                assertEquals(!legal.isEmpty(), MoveGenerator.hasLegalMove(board, color), "trial " + trial + " " + color);
+            }
+        }
+    }
+
+    @Test
+    void sharedPiecesGenerateTheSameMovesOnEveryThread() {
+        ChessBoard board = new ChessBoard();
+        ChessPiece pawn = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        assertSame(pawn, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        ChessPosition promoting = new ChessPosition(7, 1);
+        ChessPosition pushing = new ChessPosition(2, 8);
+        board.addPiece(promoting, pawn);
+        board.addPiece(pushing, pawn);
+        HashSet<ChessMove> promotions = pawn.pieceMoves(board, promoting);
+        HashSet<ChessMove> pushes = pawn.pieceMoves(board, pushing);
+        assertEquals(4, promotions.size());
+        assertEquals(2, pushes.size());
+
+        boolean allMatch = IntStream.range(0, 10_000).parallel().allMatch(i -> i % 2 == 0
+                ? pawn.pieceMoves(board, promoting).equals(promotions)
+                : pawn.pieceMoves(board, pushing).equals(pushes));
+        assertTrue(allMatch);
+    }
+
+    private static HashSet<ChessMove> tryEveryMove(ChessGame game, ChessBoard board, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(board, color, moves);
+        HashSet<ChessMove> legal = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            game.pushMove(moves.get(i));
+            if (!game.isInCheck(color)) {
+                legal.add(Move.toChessMove(moves.get(i)));
+            }
+            game.popMove();
+        }
+        return legal;
+    }
+
+    private static ChessPosition randomSquare(Random random, int lowRow, int highRow) {
+        return ChessPosition.of(lowRow + random.nextInt(highRow - lowRow + 1), random.nextInt(8) + 1);
+    }
+}
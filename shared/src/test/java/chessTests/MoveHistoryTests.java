@@ -0,0 +1,126 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveHistoryTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    void undoAndRedoWalkTheHistory() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(START);
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove d5 = new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null);
+        ChessMove takes = new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null);
+        game.makeMove(e4);
+        game.makeMove(d5);
+        String beforeCapture = game.toFen();
+        game.makeMove(takes);
+        String afterCapture = game.toFen();
+
+        assertEquals(3, game.getPlyCount());
+        assertEquals(e4, game.moveAt(0));
+        assertEquals(takes, game.moveAt(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> game.moveAt(3));
+
+        assertEquals(takes, game.undo());
+        assertEquals(beforeCapture, game.toFen());
+        assertEquals(game.getZobristKey(), game.getPosition().getZobristKey());
+        assertEquals(d5, game.undo());
+        assertEquals(e4, game.undo());
+        assertNull(game.undo());
+        assertEquals(ChessGame.fromFen(START), game);
+
+        assertEquals(e4, game.redo());
+        assertEquals(d5, game.redo());
+        assertEquals(takes, game.redo());
+        assertNull(game.redo());
+        assertEquals(afterCapture, game.toFen());
+        assertEquals(Position.of(game.getBoard(), game.getTeamTurn()), game.getPosition());
+    }
+
+    @Test
+    void newMoveDiscardsRedo() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(START);
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.undo();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        assertNull(game.redo());
+        assertEquals(1, game.getPlyCount());
+    }
+
+    @Test
+    void historyOutgrowsInitialCapacity() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(START);
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)};
+        for (int ply = 0; ply < 2000; ply++) {
+            game.makeMove(shuffle[ply % 4]);
+        }
+        assertEquals(2000, game.getPlyCount());
+        assertEquals(shuffle[3], game.moveAt(1999));
+        for (int ply = 0; ply < 2000; ply++) {
+            game.undo();
+        }
+        assertEquals(ChessGame.fromFen(START), game);
+    }
+
+    @Test
+    void knightShuffleRepeatsThreeTimes() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(START);
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)};
+        for (int ply = 0; ply < 4; ply++) {
+            game.makeMove(shuffle[ply]);
+        }
+        assertEquals(2, game.repetitionCount());
+        assertFalse(game.isDraw());
+        for (int ply = 0; ply < 4; ply++) {
+            game.makeMove(shuffle[ply]);
+        }
+        assertEquals(3, game.repetitionCount());
+        assertEquals(8, game.getHalfmoveClock());
+        assertTrue(game.isThreefoldRepetition());
+        assertTrue(game.isDraw());
+
+        game.undo();
+        assertEquals(7, game.getHalfmoveClock());
+        assertFalse(game.isDraw());
+    }
+
+    @Test
+    void pawnMoveResetsClockAndRepetitions() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/4p3/8/8/8/8/8/R3K3 w - - 41 1");
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        assertEquals(42, game.getHalfmoveClock());
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(6, 5), null));
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.repetitionCount());
+        assertEquals("4k3/8/4p3/8/8/8/R7/4K3 w - - 0 1", game.toFen());
+    }
+
+    @Test
+    void fiftyMoveRuleDrawsUnlessMated() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 1");
+        assertFalse(game.isDraw());
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        assertTrue(game.isFiftyMoveDraw());
+        assertTrue(game.isDraw());
+        assertEquals(100, BoardCodec.decode(BoardCodec.encode(game)).getHalfmoveClock());
+
+        ChessGame mated = ChessGame.fromFen("k7/8/1K6/8/8/8/8/7R w - - 99 1");
+        mated.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(8, 8), null));
+        assertTrue(mated.isFiftyMoveDraw());
+        assertTrue(mated.isInCheckmate(ChessGame.TeamColor.BLACK));
+        assertFalse(mated.isDraw());
+    }
+}
@@ -0,0 +1,45 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTests {
+
+    @Test
+    void referencePositionsMatchKnownCounts() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = reference.toGame();
+            for (int depth = 1; depth <= reference.counts().length; depth++) {
+                assertEquals(reference.counts()[depth - 1], Perft.perft(game, depth), reference.name() + " depth " + depth);
+            }
+            assertEquals(reference.toGame(), game, reference.name() + " left changed");
+        }
+    }
+
+    @Test
+    void divideAddsUpToPerft() {
+        ChessGame game = Perft.REFERENCES.get(0).toGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 3);
+        assertEquals(20, divide.size());
+        assertEquals(Perft.perft(game, 3), divide.values().stream().mapToLong(Long::longValue).sum());
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        assertEquals(20L, Perft.divide(game, 2).get(e4));
+    }
+
+    @Test
+    void parallelDivideMatchesSerialDivide() {
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            ChessGame game = reference.toGame();
+            int depth = Math.min(3, reference.counts().length);
+            Perft.ParallelResult parallel = Perft.parallelDivide(game, depth, 4);
+            assertEquals(Perft.divide(game, depth), parallel.divide(), reference.name());
+            assertEquals(reference.counts()[depth - 1], parallel.nodes(), reference.name());
+            assertEquals(parallel.nodes(), parallel.perThread().values().stream().mapToLong(Perft.Result::nodes).sum());
+            assertEquals(reference.toGame(), game, reference.name() + " left changed");
+        }
+    }
+}
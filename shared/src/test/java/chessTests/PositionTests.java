@@ -0,0 +1,52 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTests {
+
+    @Test
+    void afterMatchesSnapshotOfPlayedBoard() {
+        Random random = new Random(240);
+        ChessGame game = Perft.REFERENCES.get(1).toGame();
+        Position position = game.getPosition();
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 30; ply++) {
+            moves.clear();
+            MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            game.pushMove(move);
+            position = position.after(move);
+            assertEquals(Position.of(game.getBoard(), game.getTeamTurn()), position, "ply " + ply);
+            assertEquals(game.getZobristKey(), position.getZobristKey());
+            assertEquals(game.getBoard(), position.toBoard());
+        }
+    }
+
+    @Test
+    void makeMovePublishesWithoutChangingOldSnapshots() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        game.setBoard(board);
+        Position start = game.getPosition();
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        Position published = game.getPosition();
+        assertNotSame(start, published);
+        assertEquals(ChessGame.TeamColor.BLACK, published.getTeamTurn());
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                published.getPiece(new ChessPosition(4, 5)));
+        assertNull(start.getPiece(new ChessPosition(4, 5)));
+        assertEquals(Position.of(game.getBoard(), game.getTeamTurn()), published);
+        assertEquals(game.getBoard(), published.toGame().getBoard());
+    }
+}
@@ -0,0 +1,82 @@
+package engineTests;
+
+import chess.*;
+import engine.MoveOrdering;
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveOrderingTests {
+
+    // white pawn d4 and queen h5 can both take; black queen e5, pawn f7
+    private static final String CAPTURES = "4k3/5p2/8/4q2Q/3P4/8/8/6K1 w - - 0 1";
+
+    @Test
+    void mostValuableVictimFirst() {
+        ChessGame game = ChessGame.fromFen(CAPTURES);
+        MoveList moves = legalMoves(game);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.clear();
+        ordering.score(moves, game.getBoard(), game.getTeamTurn(), 0, Move.NONE);
+
+        int first = moves.pickNext(0);
+        assertEquals(Move.encode(27, 36, null, true), first, "pawn takes queen");
+        int second = moves.pickNext(1);
+        assertEquals(Move.encode(39, 36, null, true), second, "queen takes queen");
+        int third = moves.pickNext(2);
+        assertEquals(Move.encode(39, 53, null, true), third, "queen takes pawn");
+        for (int i = 3; i < moves.size(); i++) {
+            assertFalse(Move.isCapture(moves.pickNext(i)));
+        }
+    }
+
+    @Test
+    void tableMoveBeforeEverything() {
+        ChessGame game = ChessGame.fromFen(CAPTURES);
+        MoveList moves = legalMoves(game);
+        int quiet = Move.encode(6, 5, null, false);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.clear();
+        ordering.score(moves, game.getBoard(), game.getTeamTurn(), 0, quiet);
+        assertEquals(quiet, moves.pickNext(0));
+    }
+
+    @Test
+    void killersAndHistoryRaiseQuietMoves() {
+        ChessGame game = ChessGame.fromFen(CAPTURES);
+        int killer = Move.encode(6, 7, null, false);
+        int historyMove = Move.encode(6, 14, null, false);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.clear();
+        ordering.cutoff(historyMove, 3, ChessGame.TeamColor.WHITE, 5, 6);
+        ordering.cutoff(killer, 0, ChessGame.TeamColor.WHITE, 2, 1);
+        assertEquals(2, ordering.getCutoffs());
+        assertEquals(1, ordering.getFirstMoveCutoffs());
+
+        MoveList moves = legalMoves(game);
+        ordering.score(moves, game.getBoard(), game.getTeamTurn(), 2, Move.NONE);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Move.isCapture(moves.pickNext(i)));
+        }
+        assertEquals(killer, moves.pickNext(3));
+        assertEquals(historyMove, moves.pickNext(4));
+    }
+
+    @Test
+    void searchMostlyCutsOffOnTheFirstMove() {
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        SearchResult result = new Search(new TranspositionTable(1 << 22)).search(game, SearchLimits.depth(4));
+        assertTrue(result.cutoffs() > 0);
+        assertTrue(result.firstMoveCutoffRate() > 0.6, "first move cutoff rate " + result.firstMoveCutoffRate());
+    }
+
+    private static MoveList legalMoves(ChessGame game) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(game.getBoard(), game.getTeamTurn(), moves);
+        return moves;
+    }
+}
@@ -0,0 +1,115 @@
+package engineTests;
+
+import chess.*;
+import engine.OpeningBook;
+import engine.OpeningBookBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void learnsTheMovesThatLedToStoredGames() throws IOException {
+        ChessGame start = ChessGame.fromFen(START);
+        int e4 = move(start, 2, 5, 4, 5);
+        int d4 = move(start, 2, 4, 4, 4);
+
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        // two games stopped after 1. e4 e5, one after 1. d4
+        ChessGame afterE5 = new ChessGame(start);
+        afterE5.pushMove(e4);
+        int e5 = move(afterE5, 7, 5, 5, 5);
+        afterE5.pushMove(e5);
+        builder.addPosition(afterE5);
+        builder.addPosition(afterE5);
+        ChessGame afterD4 = new ChessGame(start);
+        afterD4.pushMove(d4);
+        builder.addPosition(afterD4);
+        builder.walk(start, 2);
+
+        Path path = dir.resolve("book.bin");
+        builder.write(path);
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(3, book.size());
+        assertEquals(e4, book.bestMove(start.getZobristKey()));
+
+        ChessGame afterE4 = new ChessGame(start);
+        afterE4.pushMove(e4);
+        assertEquals(e5, book.bestMove(afterE4.getZobristKey()));
+        assertEquals(Move.NONE, book.bestMove(afterD4.getZobristKey()));
+
+        // weighted 2 to 1
+        int e4Picks = 0;
+        for (long random = 0; random < 300; random++) {
+            int picked = book.pickMove(start.getZobristKey(), random);
+            assertTrue(picked == e4 || picked == d4);
+            if (picked == e4) {
+                e4Picks++;
+            }
+        }
+        assertEquals(200, e4Picks);
+        MoveList scratch = new MoveList();
+        assertEquals(e5, book.move(afterE4, 12345L, scratch));
+        assertEquals(Move.NONE, book.move(afterE5, 12345L, scratch));
+    }
+
+    @Test
+    void creditsTheRecordedMovesOfFinishedGames() throws IOException {
+        ChessGame start = ChessGame.fromFen(START);
+        int e4 = move(start, 2, 5, 4, 5);
+        // a game far past the walk's depth, with its moves recorded
+        ChessGame game = new ChessGame(start);
+        game.pushMove(e4);
+        int e5 = move(game, 7, 5, 5, 5);
+        game.pushMove(e5);
+        int[][] shuffle = {{1, 7, 3, 6}, {8, 7, 6, 6}, {3, 6, 1, 7}, {6, 6, 8, 7}};
+        for (int i = 0; i < 5; i++) {
+            for (int[] squares : shuffle) {
+                game.pushMove(move(game, squares[0], squares[1], squares[2], squares[3]));
+            }
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        builder.addGame(game, 4);
+        builder.addGame(game, 4);
+        builder.walk(start, 2);
+        assertEquals(4, builder.size());
+
+        Path path = dir.resolve("book.bin");
+        builder.write(path);
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(e4, book.bestMove(start.getZobristKey()));
+        ChessGame afterE4 = new ChessGame(start);
+        afterE4.pushMove(e4);
+        assertEquals(e5, book.bestMove(afterE4.getZobristKey()));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotBooks() throws IOException {
+        Path path = dir.resolve("junk.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        Path empty = dir.resolve("empty.bin");
+        builder.write(empty);
+        assertEquals(0, OpeningBook.open(empty).size());
+        assertEquals(Move.NONE, OpeningBook.open(empty).bestMove(42L));
+    }
+
+    private static int move(ChessGame game, int fromRow, int fromColumn, int toRow, int toColumn) {
+        ChessMove move = new ChessMove(new ChessPosition(fromRow, fromColumn), new ChessPosition(toRow, toColumn), null);
+        return Move.encode(move, game.getBoard());
+    }
+}
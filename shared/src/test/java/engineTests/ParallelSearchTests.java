@@ -0,0 +1,70 @@
+package engineTests;
+
+import chess.*;
+import engine.ParallelSearch;
+import engine.Search;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSearchTests {
+
+    @Test
+    void findsMateOnSeveralThreads() {
+        ChessGame game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/6R1 w - - 0 1");
+        ParallelSearch.Result result;
+        try (ParallelSearch search = new ParallelSearch(3, new TranspositionTable(1 << 20))) {
+            result = search.search(game, SearchLimits.depth(4));
+        }
+        assertEquals(new ChessMove(new ChessPosition(1, 7), new ChessPosition(8, 7), null), result.result().getBestMove());
+        assertEquals(Search.MATE - 1, result.result().score());
+    }
+
+    @Test
+    void reportsEveryThread() {
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        String before = game.toFen();
+        ParallelSearch.Result result;
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(1 << 22))) {
+            result = search.search(game, SearchLimits.depth(3));
+        }
+        assertEquals(4, result.threads());
+        assertSame(result.result(), result.perThread().get(0));
+        assertEquals(3, result.result().depth());
+        assertEquals(result.perThread().stream().mapToLong(r -> r.nodes()).sum(), result.nodes());
+        assertTrue(result.nodesPerSecond() > 0);
+        assertTrue(result.speedupOver(result.result()) > 0);
+        assertEquals(before, game.toFen());
+    }
+
+    @Test
+    void reusesItsThreadsAndKeepsTheTableClean() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        TranspositionTable table = new TranspositionTable(1 << 20);
+        try (ParallelSearch search = new ParallelSearch(4, table)) {
+            // every thread runs out of nodes before its first iteration finishes
+            ParallelSearch.Result stopped = search.search(game, SearchLimits.nodes(1));
+            assertEquals(0, stopped.result().depth());
+            assertEquals(0, table.probe(game.getZobristKey()));
+
+            ParallelSearch.Result again = search.search(game, SearchLimits.depth(3));
+            assertEquals(4, again.threads());
+            assertEquals(3, again.result().depth());
+            assertFalse(again.result().isMate());
+        }
+    }
+
+    @Test
+    void oneThreadIsAPlainSearch() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        try (ParallelSearch search = new ParallelSearch(1, new TranspositionTable(1 << 20))) {
+            ParallelSearch.Result result = search.search(game, SearchLimits.depth(3));
+            assertEquals(1, result.threads());
+            assertEquals(new Search(new TranspositionTable(1 << 20)).search(game, SearchLimits.depth(3)).bestMove(),
+                    result.result().bestMove());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+}
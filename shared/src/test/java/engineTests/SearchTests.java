@@ -0,0 +1,103 @@
+package engineTests;
+
+import chess.*;
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    void findsMateInOne() {
+        ChessGame game = ChessGame.fromFen("k7/8/1K6/8/8/8/8/6R1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        assertEquals(new ChessMove(new ChessPosition(1, 7), new ChessPosition(8, 7), null), result.getBestMove());
+        assertTrue(result.isMate());
+        assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    void takesAHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null), result.getBestMove());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    void countsRepetitionsFromBeforeTheSearch() {
+        // a knight against a queen, where the knight and queen have gone back and forth twice
+        ChessGame game = ChessGame.fromFen("k7/8/8/8/3q4/8/8/6NK w - - 0 1");
+        int knightOut = Move.encode(6, 21, null, false);
+        for (int i = 0; i < 2; i++) {
+            game.pushMove(knightOut);
+            game.pushMove(Move.encode(27, 26, null, false));
+            game.pushMove(Move.encode(21, 6, null, false));
+            game.pushMove(Move.encode(26, 27, null, false));
+        }
+        // bringing the knight out again repeats a position a third time, a draw white is glad of
+        SearchResult result = new Search(new TranspositionTable(1 << 20)).search(game, SearchLimits.depth(3));
+        assertEquals(knightOut, result.bestMove());
+        assertEquals(0, result.score());
+
+        SearchResult withoutHistory = new Search(new TranspositionTable(1 << 20)).search(new ChessGame(game), SearchLimits.depth(3));
+        assertTrue(withoutHistory.score() < 0);
+    }
+
+    @Test
+    void keepsToTheNodeBudget() {
+        ChessGame game = ChessGame.fromFen(START);
+        SearchResult result = new Search().search(game, SearchLimits.nodes(5_000));
+        assertTrue(result.nodes() <= 5_000);
+        assertNotNull(result.getBestMove());
+        assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()));
+    }
+
+    @Test
+    void unfinishedFirstIterationIsNotAnAnswer() {
+        ChessGame game = ChessGame.fromFen(START);
+        SearchResult result = new Search(new TranspositionTable(1 << 20)).search(game, SearchLimits.nodes(1));
+        assertEquals(0, result.depth());
+        assertFalse(result.isMate());
+        assertEquals(game.getBoard().evaluate(game.getTeamTurn()), result.score());
+        assertNotNull(result.getBestMove());
+        assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()));
+    }
+
+    @Test
+    void keepsToTheTimeBudget() {
+        long start = System.nanoTime();
+        SearchResult result = new Search().search(ChessGame.fromFen(START), SearchLimits.time(200));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < 1_000, "searched for " + millis + " ms");
+        assertTrue(result.depth() >= 1);
+        assertNotNull(result.getBestMove());
+    }
+
+    @Test
+    void noMoveWhenTheGameIsOver() {
+        SearchResult mated = new Search().search(ChessGame.fromFen("k6R/8/1K6/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        assertEquals(Move.NONE, mated.bestMove());
+        assertNull(mated.getBestMove());
+        assertEquals(-Search.MATE, mated.score());
+
+        SearchResult stalemated = new Search().search(ChessGame.fromFen("k7/8/1Q6/8/8/8/8/7K b - - 0 1"), SearchLimits.depth(3));
+        assertNull(stalemated.getBestMove());
+        assertEquals(0, stalemated.score());
+    }
+
+    @Test
+    void leavesTheGameAlone() {
+        ChessGame game = ChessGame.fromFen(START);
+        String before = game.toFen();
+        new Search().search(game, SearchLimits.depth(3));
+        assertEquals(before, game.toFen());
+        assertEquals(0, game.getPlyCount());
+    }
+}
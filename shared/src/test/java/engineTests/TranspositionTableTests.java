@@ -0,0 +1,96 @@
+package engineTests;
+
+import chess.*;
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTests {
+
+    private static final int MOVE = Move.encode(12, 28, null, false);
+
+    @Test
+    void storesAndProbes() {
+        TranspositionTable table = new TranspositionTable(1 << 20);
+        table.store(0x1234_5678_9ABCL, MOVE, -42, 7, TranspositionTable.LOWER, 3);
+        long data = table.probe(0x1234_5678_9ABCL);
+        assertEquals(MOVE, TranspositionTable.move(data));
+        assertEquals(-42, TranspositionTable.score(data, 3));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(0, table.probe(0x1234_5678_9ABDL));
+    }
+
+    @Test
+    void keepsToTheMemoryCap() {
+        assertEquals(1 << 16, new TranspositionTable(1 << 20).capacity());
+        assertEquals(1 << 16, new TranspositionTable((1 << 21) - 1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(8));
+    }
+
+    @Test
+    void prefersDeeperEntries() {
+        // a one-slot table, so every key collides
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(1L, MOVE, 10, 6, TranspositionTable.EXACT, 0);
+        table.store(2L, MOVE, 20, 3, TranspositionTable.EXACT, 0);
+        assertNotEquals(0, table.probe(1L));
+        assertEquals(0, table.probe(2L));
+
+        table.store(2L, MOVE, 20, 6, TranspositionTable.EXACT, 0);
+        assertEquals(0, table.probe(1L));
+        assertEquals(20, TranspositionTable.score(table.probe(2L), 0));
+
+        // a later search may replace anything
+        table.newSearch();
+        table.store(1L, MOVE, 10, 1, TranspositionTable.EXACT, 0);
+        assertNotEquals(0, table.probe(1L));
+    }
+
+    @Test
+    void keepsTheBestMoveOfAPosition() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(1L, MOVE, 10, 4, TranspositionTable.EXACT, 0);
+        table.store(1L, Move.NONE, 5, 5, TranspositionTable.UPPER, 0);
+        assertEquals(MOVE, TranspositionTable.move(table.probe(1L)));
+    }
+
+    @Test
+    void mateScoresFollowThePly() {
+        TranspositionTable table = new TranspositionTable(16);
+        // mate in 5 plies from the root, found 2 plies down: mate in 3 from the stored position
+        table.store(1L, MOVE, Search.MATE - 5, 3, TranspositionTable.EXACT, 2);
+        assertEquals(Search.MATE - 7, TranspositionTable.score(table.probe(1L), 4));
+        table.store(2L, MOVE, -Search.MATE + 5, 9, TranspositionTable.EXACT, 2);
+        assertEquals(-Search.MATE + 3, TranspositionTable.score(table.probe(2L), 0));
+    }
+
+    @Test
+    void interruptedSearchStoresNothingForTheRoot() {
+        TranspositionTable table = new TranspositionTable(1 << 20);
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        new Search(table).search(game, SearchLimits.nodes(1));
+        assertEquals(0, table.probe(game.getZobristKey()));
+
+        new Search(table).search(game, SearchLimits.nodes(40));
+        long root = table.probe(game.getZobristKey());
+        if (root != 0) {
+            assertTrue(Math.abs(TranspositionTable.score(root, 0)) < Search.MATE - Search.MAX_PLY);
+        }
+    }
+
+    @Test
+    void searchReusesTheTable() {
+        TranspositionTable table = new TranspositionTable(1 << 22);
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w - - 2 3");
+        SearchResult first = new Search(table).search(game, SearchLimits.depth(4));
+        SearchResult again = new Search(table).search(game, SearchLimits.depth(4));
+        assertEquals(first.score(), again.score());
+        assertTrue(again.nodes() < first.nodes(), again.nodes() + " vs " + first.nodes());
+        assertEquals(first.bestMove(), TranspositionTable.move(table.probe(game.getZobristKey())));
+    }
+}